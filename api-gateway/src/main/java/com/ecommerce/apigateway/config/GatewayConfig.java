@@ -1,18 +1,20 @@
 package com.ecommerce.apigateway.config;
 
+import com.ecommerce.apigateway.identity.ClientIdentityResolver;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
 import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigBuilder;
 import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 
 @Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
 public class GatewayConfig {
 
     @Bean
@@ -30,8 +32,9 @@ public class GatewayConfig {
                 .build());
     }
 
+    // Resolves API key, JWT subject or client IP without blocking the event loop
     @Bean
-    public KeyResolver ipKeyResolver() {
-        return exchange -> Mono.just(exchange.getRequest().getRemoteAddress().getHostName());
+    public KeyResolver clientKeyResolver(ClientIdentityResolver clientIdentityResolver) {
+        return clientIdentityResolver::resolve;
     }
 } 
\ No newline at end of file
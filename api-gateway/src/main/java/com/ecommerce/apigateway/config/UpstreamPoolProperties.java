@@ -0,0 +1,52 @@
+package com.ecommerce.apigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool settings for gateway-to-backend traffic. {@code defaults} applies to every
+ * route; entries under {@code routes.<route-id>} override individual fields for one route.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+    // When false every route shares the gateway's default HttpClient
+    private boolean enabled = true;
+    private Pool defaults = new Pool();
+    private Map<String, Pool> routes = new HashMap<>();
+
+    @Data
+    public static class Pool {
+        private Integer maxConnections;
+        // Requests allowed to wait for a connection; -1 means unbounded
+        private Integer pendingAcquireMaxCount;
+        private Duration pendingAcquireTimeout;
+        private Duration maxIdleTime;
+        private Duration maxLifeTime;
+        private Duration evictionInterval;
+        // Reuse the most recently released connection so idle ones can age out
+        private Boolean lifo;
+        private Boolean keepAlive;
+        // Prior-knowledge HTTP/2 over cleartext; the backend must accept h2c
+        private Boolean h2c;
+
+        public Pool mergedOver(Pool defaults) {
+            Pool merged = new Pool();
+            merged.maxConnections = maxConnections != null ? maxConnections : defaults.maxConnections;
+            merged.pendingAcquireMaxCount = pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount;
+            merged.pendingAcquireTimeout = pendingAcquireTimeout != null ? pendingAcquireTimeout : defaults.pendingAcquireTimeout;
+            merged.maxIdleTime = maxIdleTime != null ? maxIdleTime : defaults.maxIdleTime;
+            merged.maxLifeTime = maxLifeTime != null ? maxLifeTime : defaults.maxLifeTime;
+            merged.evictionInterval = evictionInterval != null ? evictionInterval : defaults.evictionInterval;
+            merged.lifo = lifo != null ? lifo : defaults.lifo;
+            merged.keepAlive = keepAlive != null ? keepAlive : defaults.keepAlive;
+            merged.h2c = h2c != null ? h2c : defaults.h2c;
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.apigateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Caps in-flight upstream calls per route with a GradientConcurrencyLimit that adapts to
+ * the measured RTT. Requests over the limit are shed at once with a 503 instead of
+ * queueing in front of a backend that is already slowing down.
+ */
+@Component
+public class AdaptiveConcurrencyGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyGatewayFilterFactory.Config> {
+
+    private final MeterRegistry meterRegistry;
+    // One limit per route. A refresh with the same config keeps the learned limit; a changed
+    // config replaces it and rebinds the gauges to the new state.
+    private final Map<String, RouteLimit> limits = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        GradientConcurrencyLimit limit = limits.compute(routeId, (id, existing) ->
+                existing != null && existing.config().equals(config) ? existing : register(id, config, existing)).limit();
+        long timeoutNanos = config.getTimeout().toNanos();
+        Counter rejected = meterRegistry.counter("gateway.adaptive.rejected", "route", routeId);
+
+        return (exchange, chain) -> {
+            if (!limit.tryAcquire()) {
+                rejected.increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return response.setComplete();
+            }
+            long start = System.nanoTime();
+            int inFlightAtStart = limit.getInFlight();
+            return chain.filter(exchange).doFinally(signal -> {
+                limit.release();
+                long elapsed = System.nanoTime() - start;
+                if (signal == SignalType.CANCEL) {
+                    // The circuit breaker's TimeLimiter cancels calls that overrun it; an earlier
+                    // cancel is the client going away and says nothing about the backend
+                    if (elapsed >= timeoutNanos) {
+                        limit.onDrop();
+                    }
+                    return;
+                }
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean failed = signal == SignalType.ON_ERROR
+                        || exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null
+                        || (status != null && status.is5xxServerError());
+                if (failed) {
+                    limit.onDrop();
+                } else {
+                    limit.onSample(elapsed, inFlightAtStart);
+                }
+            });
+        };
+    }
+
+    private RouteLimit register(String routeId, Config config, RouteLimit previous) {
+        if (previous != null) {
+            // Gauges are registered once per name and tags, so the old ones must go first
+            previous.gauges().forEach(meterRegistry::remove);
+        }
+        GradientConcurrencyLimit limit = new GradientConcurrencyLimit(config.getInitialLimit(),
+                config.getMinLimit(), config.getMaxLimit(), config.getSmoothing(), config.getRttTolerance(),
+                config.getLongWindow(), config.getBackoffRatio());
+        List<Meter> gauges = List.of(
+                Gauge.builder("gateway.adaptive.limit", limit, GradientConcurrencyLimit::getLimit)
+                        .tag("route", routeId).register(meterRegistry),
+                Gauge.builder("gateway.adaptive.inflight", limit, GradientConcurrencyLimit::getInFlight)
+                        .tag("route", routeId).register(meterRegistry),
+                Gauge.builder("gateway.adaptive.rtt.short", limit, GradientConcurrencyLimit::getShortRttMillis)
+                        .tag("route", routeId).baseUnit("milliseconds").register(meterRegistry),
+                Gauge.builder("gateway.adaptive.rtt.long", limit, GradientConcurrencyLimit::getLongRttMillis)
+                        .tag("route", routeId).baseUnit("milliseconds").register(meterRegistry));
+        return new RouteLimit(config, limit, gauges);
+    }
+
+    private record RouteLimit(Config config, GradientConcurrencyLimit limit, List<Meter> gauges) {
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        // Weight of each new estimate in the limit, 0..1
+        private double smoothing = 0.2;
+        // How much slower than the baseline recent calls may get before the limit shrinks
+        private double rttTolerance = 1.5;
+        // Number of samples the long-term RTT baseline averages over
+        private int longWindow = 600;
+        private double backoffRatio = 0.9;
+        // Matches the circuit breaker's TimeLimiter: cancels after this long count as timeouts
+        private Duration timeout = Duration.ofSeconds(3);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.apigateway.filter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Immutable snapshot of an upstream response held by the ResponseCacheStore.
+ */
+public record CachedResponse(String path, HttpStatusCode status, HttpHeaders headers, byte[] body,
+                             String etag, long storedAtMillis, long expiresAtMillis) {
+
+    // Rough heap footprint used for the byte cap: body plus a fixed allowance for key, headers and object overhead
+    private static final int OVERHEAD_BYTES = 512;
+
+    public long sizeInBytes() {
+        return body.length + OVERHEAD_BYTES;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.apigateway.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gradient-style concurrency limit for one route. The ratio of the long-term RTT baseline
+ * to the recent RTT says whether the backend is queueing: when recent calls get slower the
+ * gradient drops below 1 and the limit shrinks; while latency stays at the baseline the
+ * limit grows by about sqrt(limit) per sample. Timeouts and 5xx answers cut the limit
+ * multiplicatively.
+ */
+final class GradientConcurrencyLimit {
+
+    private static final double SHORT_RTT_ALPHA = 2.0 / (10 + 1);
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double rttTolerance;
+    private final double longRttAlpha;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by this; only the volatile copies below are read without the lock
+    private double estimatedLimit;
+    private double longRttNanos;
+    private double shortRttNanos;
+    private long samples;
+    private volatile double longRttMillis;
+    private volatile double shortRttMillis;
+
+    GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double smoothing,
+                             double rttTolerance, int longWindow, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.longRttAlpha = 2.0 / (longWindow + 1);
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Returns the in-flight count including the caller, used to tell whether the limit was in use
+    int release() {
+        return inFlight.getAndDecrement();
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        samples++;
+        shortRttNanos = samples == 1 ? rttNanos : shortRttNanos + SHORT_RTT_ALPHA * (rttNanos - shortRttNanos);
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (rttNanos - longRttNanos) / samples;
+        } else {
+            longRttNanos += longRttAlpha * (rttNanos - longRttNanos);
+        }
+        // Let the baseline follow latency back down after a recovery
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        longRttMillis = longRttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        shortRttMillis = shortRttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+
+        // An under-used limit says nothing about capacity, so it is not grown further
+        if (samples <= WARMUP_SAMPLES || inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        setEstimatedLimit(estimatedLimit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    synchronized void onDrop() {
+        setEstimatedLimit(estimatedLimit * backoffRatio);
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getLongRttMillis() {
+        return longRttMillis;
+    }
+
+    double getShortRttMillis() {
+        return shortRttMillis;
+    }
+
+    private void setEstimatedLimit(double value) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, value));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps hedges to a share of traffic: every request deposits {@code percent / 100} of a token,
+ * every hedge spends a whole one, and the balance is capped so a quiet period cannot save up
+ * a large burst of hedges. Tokens are kept in thousandths so the update is one CAS.
+ */
+final class HedgeBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance = new AtomicLong();
+
+    HedgeBudget(double percent, int maxBurst) {
+        this.depositPerRequest = Math.round(percent * TOKEN / 100);
+        this.maxBalance = maxBurst * TOKEN;
+    }
+
+    void onRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
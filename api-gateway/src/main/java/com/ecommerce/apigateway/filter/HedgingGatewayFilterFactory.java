@@ -0,0 +1,248 @@
+package com.ecommerce.apigateway.filter;
+
+import com.ecommerce.apigateway.routing.UpstreamHttpClientRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Data;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Hedged GETs for idempotent read paths. The filter performs the upstream call itself: if the
+ * first attempt has not answered after the route's live latency percentile, or fails outright,
+ * a second attempt goes to the next alternate instance, the first answer wins and the other
+ * attempt is cancelled. Routes without alternate instances are not hedged. Hedges are limited
+ * by a HedgeBudget. Responses are buffered, so only paths with small bodies should be configured.
+ */
+@Component
+public class HedgingGatewayFilterFactory extends AbstractGatewayFilterFactory<HedgingGatewayFilterFactory.Config> {
+
+    // Right after the request URL is resolved and ahead of the routing filter
+    private static final int ORDER = RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    private static final Duration DELAY_REFRESH_INTERVAL = Duration.ofSeconds(1);
+
+    private final MeterRegistry meterRegistry;
+    private final UpstreamHttpClientRegistry clientRegistry;
+    private final HttpClient defaultClient;
+    private final HttpClientProperties httpClientProperties;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final Map<String, HedgeState> states = new ConcurrentHashMap<>();
+
+    public HedgingGatewayFilterFactory(MeterRegistry meterRegistry, UpstreamHttpClientRegistry clientRegistry,
+                                       HttpClient httpClient, HttpClientProperties httpClientProperties,
+                                       ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.clientRegistry = clientRegistry;
+        this.defaultClient = httpClient;
+        this.httpClientProperties = httpClientProperties;
+        this.headersFiltersProvider = headersFiltersProvider;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        HedgeState state = states.computeIfAbsent(routeId, id -> new HedgeState(id, config));
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(path));
+        }
+
+        GatewayFilter filter = (exchange, chain) -> {
+            URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            if (url == null || !state.hasAlternates() || isAlreadyRouted(exchange)
+                    || exchange.getRequest().getMethod() != HttpMethod.GET
+                    || (!patterns.isEmpty() && patterns.stream()
+                    .noneMatch(p -> p.matches(exchange.getRequest().getPath().pathWithinApplication())))) {
+                return chain.filter(exchange);
+            }
+            setAlreadyRouted(exchange);
+            state.requests.increment();
+            state.budget.onRequest();
+
+            HttpHeaders requestHeaders = new HttpHeaders();
+            requestHeaders.addAll(HttpHeadersFilter.filterRequest(headersFilters(), exchange));
+            requestHeaders.remove(HttpHeaders.HOST); // let the client set the backend's host, as NettyRoutingFilter does
+            HttpClient client = client(routeId);
+            long start = System.nanoTime();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            // A primary cancelled because the hedge won is recorded with the time it had run so far.
+            // Leaving it out would keep only the fast primaries and pull the hedge delay down.
+            Mono<Attempt> primary = send(client, url, requestHeaders)
+                    .doOnNext(response -> state.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnCancel(() -> state.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> primaryFailed.tryEmitEmpty())
+                    .map(response -> new Attempt(response, false));
+            // The hedge goes out after the delay, or at once if the primary has already failed
+            Mono<Attempt> hedge = Mono.firstWithSignal(Mono.delay(state.hedgeDelay()).then(), primaryFailed.asMono())
+                    .then(Mono.defer(() -> {
+                        if (!state.budget.tryAcquire()) {
+                            state.budgetExhausted.increment();
+                            return Mono.empty(); // primary alone decides the outcome
+                        }
+                        state.hedges.increment();
+                        return send(client, state.alternate(url), requestHeaders).map(response -> new Attempt(response, true));
+                    }));
+
+            return Mono.firstWithValue(primary, hedge)
+                    .flatMap(winner -> {
+                        if (winner.hedge()) {
+                            state.hedgeWins.increment();
+                        }
+                        return write(exchange, winner.response());
+                    });
+        };
+        return new OrderedGatewayFilter(filter, ORDER);
+    }
+
+    private HttpClient client(String routeId) {
+        HttpClient client = clientRegistry.isEnabled() ? clientRegistry.clientFor(routeId) : defaultClient;
+        Duration responseTimeout = httpClientProperties.getResponseTimeout();
+        return responseTimeout != null ? client.responseTimeout(responseTimeout) : client;
+    }
+
+    private List<HttpHeadersFilter> headersFilters() {
+        return headersFiltersProvider.getIfAvailable(List::of);
+    }
+
+    private static Mono<UpstreamResponse> send(HttpClient client, URI url, HttpHeaders headers) {
+        return client.headers(nettyHeaders -> headers.forEach((name, values) -> nettyHeaders.add(name, values)))
+                .get()
+                .uri(url)
+                .responseSingle((response, body) -> body.asByteArray()
+                        .defaultIfEmpty(new byte[0])
+                        .map(bytes -> {
+                            HttpHeaders responseHeaders = new HttpHeaders();
+                            response.responseHeaders().forEach(entry -> responseHeaders.add(entry.getKey(), entry.getValue()));
+                            return new UpstreamResponse(response.status().code(), responseHeaders, bytes);
+                        }));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, UpstreamResponse upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(upstream.status()));
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters(), upstream.headers(), exchange,
+                HttpHeadersFilter.Type.RESPONSE);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(upstream.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(upstream.body())));
+    }
+
+    private record UpstreamResponse(int status, HttpHeaders headers, byte[] body) {
+    }
+
+    private record Attempt(UpstreamResponse response, boolean hedge) {
+    }
+
+    private final class HedgeState {
+        private final Config config;
+        private final HedgeBudget budget;
+        private final Timer latency;
+        private final Counter requests;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+        private final Counter budgetExhausted;
+        private final List<URI> alternates = new ArrayList<>();
+        private final AtomicInteger nextAlternate = new AtomicInteger();
+        private volatile Duration delay;
+        private volatile long delayRefreshedAt;
+
+        private HedgeState(String routeId, Config config) {
+            this.config = config;
+            this.budget = new HedgeBudget(config.getBudgetPercent(), config.getMaxBurst());
+            this.delay = config.getMaxDelay();
+            this.latency = Timer.builder("gateway.hedge.upstream.latency")
+                    .tag("route", routeId)
+                    .publishPercentiles(config.getPercentile())
+                    .distributionStatisticExpiry(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            this.requests = meterRegistry.counter("gateway.hedge.requests", "route", routeId);
+            this.hedges = meterRegistry.counter("gateway.hedge.sent", "route", routeId);
+            this.hedgeWins = meterRegistry.counter("gateway.hedge.wins", "route", routeId);
+            this.budgetExhausted = meterRegistry.counter("gateway.hedge.budget.exhausted", "route", routeId);
+            config.getAlternateUris().stream()
+                    .filter(uri -> !uri.isBlank())
+                    .forEach(uri -> alternates.add(URI.create(uri.trim())));
+        }
+
+        boolean hasAlternates() {
+            return !alternates.isEmpty();
+        }
+
+        // The percentile is recomputed at most once a second; until enough samples exist maxDelay is used
+        Duration hedgeDelay() {
+            long now = System.nanoTime();
+            if (now - delayRefreshedAt > DELAY_REFRESH_INTERVAL.toNanos()) {
+                delayRefreshedAt = now;
+                if (latency.count() >= config.getMinSamples()) {
+                    for (ValueAtPercentile value : latency.takeSnapshot().percentileValues()) {
+                        long nanos = (long) value.value(TimeUnit.NANOSECONDS);
+                        delay = Duration.ofNanos(Math.max(config.getMinDelay().toNanos(),
+                                Math.min(config.getMaxDelay().toNanos(), nanos)));
+                    }
+                }
+            }
+            return delay;
+        }
+
+        URI alternate(URI url) {
+            URI base = alternates.get(Math.floorMod(nextAlternate.getAndIncrement(), alternates.size()));
+            return UriComponentsBuilder.fromUri(url)
+                    .scheme(base.getScheme())
+                    .host(base.getHost())
+                    .port(base.getPort())
+                    .build(true)
+                    .toUri();
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        // Path patterns within the route to hedge; empty means every GET on the route
+        private List<String> paths = new ArrayList<>();
+        private double percentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+        private long minSamples = 100;
+        // Hedges allowed as a percentage of requests, with a small burst allowance
+        private double budgetPercent = 5;
+        private int maxBurst = 10;
+        // Other instances of the backend, e.g. http://shipping-service-2:8084; none disables hedging
+        private List<String> alternateUris = new ArrayList<>();
+    }
+}
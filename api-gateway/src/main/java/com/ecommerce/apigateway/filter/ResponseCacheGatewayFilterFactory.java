@@ -0,0 +1,285 @@
+package com.ecommerce.apigateway.filter;
+
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR;
+
+/**
+ * Caches successful GET responses of a route in memory. Keys are path, query and the
+ * configured vary headers; hits are answered without touching the backend and honour
+ * If-None-Match. Concurrent misses for one key wait for a single upstream call. Any
+ * unsafe method on the route evicts the entries of its path and parent resources; writes
+ * listed under evictions also evict every entry below a prefix.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    // Runs ahead of the CircuitBreaker filters so hits never count against the backend
+    private static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+    private static final List<String> UNCACHED_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.SET_COOKIE, HttpHeaders.DATE,
+            HttpHeaders.AGE, CACHE_STATUS_HEADER);
+
+    private final ResponseCacheStore store;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheStore store) {
+        super(Config.class);
+        this.store = store;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        List<PathPattern> patterns = new ArrayList<>();
+        for (String path : config.getPaths()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(path));
+        }
+        List<PathPattern> evictionPatterns = new ArrayList<>();
+        for (Eviction eviction : config.getEvictions()) {
+            evictionPatterns.add(PathPatternParser.defaultInstance.parse(eviction.getPath()));
+        }
+
+        GatewayFilter filter = (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            HttpMethod method = request.getMethod();
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            if (method != HttpMethod.GET) {
+                String path = request.getPath().value();
+                return chain.filter(exchange).doFinally(signal -> {
+                    store.invalidatePath(path);
+                    for (int i = 0; i < evictionPatterns.size(); i++) {
+                        if (evictionPatterns.get(i).matches(request.getPath().pathWithinApplication())) {
+                            store.invalidateSubtree(config.getEvictions().get(i).getPrefix());
+                        }
+                    }
+                });
+            }
+            if (!patterns.isEmpty() && patterns.stream().noneMatch(p -> p.matches(request.getPath().pathWithinApplication()))) {
+                return chain.filter(exchange);
+            }
+
+            if (request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                    && config.getVaryHeaders().stream().noneMatch(HttpHeaders.AUTHORIZATION::equalsIgnoreCase)) {
+                return chain.filter(exchange); // never share a credentialed response across callers
+            }
+
+            String key = cacheKey(request, config.getVaryHeaders());
+            String requestCacheControl = request.getHeaders().getCacheControl();
+            if (requestCacheControl == null || !requestCacheControl.contains("no-cache")) {
+                CachedResponse cached = store.get(key);
+                if (cached != null) {
+                    return writeCached(exchange, cached, "HIT");
+                }
+            }
+
+            String path = request.getPath().value();
+            CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> inFlight = store.joinInFlight(key, path, leader);
+            if (inFlight != null) {
+                // Another request is already fetching this key: reuse its answer, or go upstream
+                // ourselves if it turned out not to be cacheable
+                return Mono.fromFuture(inFlight, true)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .timeout(store.getCoalesceTimeout(), Mono.just(Optional.empty()))
+                        .flatMap(cached -> cached.isPresent()
+                                ? writeCached(exchange, cached.get(), "COALESCED")
+                                : chain.filter(exchange));
+            }
+
+            ResponseCapture capture = new ResponseCapture(exchange.getResponse(), store.getMaxEntryBytes());
+            capture.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+            return chain.filter(exchange.mutate().response(capture).build())
+                    .doFinally(signal -> {
+                        CachedResponse response = null;
+                        if (signal == SignalType.ON_COMPLETE && isCacheable(exchange, capture)) {
+                            response = toCachedResponse(path, capture, config.getTtl());
+                        }
+                        store.completeInFlight(key, path, leader, response);
+                    });
+        };
+        return new OrderedGatewayFilter(filter, ORDER);
+    }
+
+    private static String cacheKey(ServerHttpRequest request, List<String> varyHeaders) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : varyHeaders) {
+            key.append('|').append(header.toLowerCase(Locale.ROOT)).append('=');
+            List<String> values = request.getHeaders().get(header);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isCacheable(ServerWebExchange exchange, ResponseCapture capture) {
+        if (!capture.isComplete() || exchange.getAttribute(CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null) {
+            return false; // streamed past the size cap, never written, or served by a fallback
+        }
+        HttpHeaders headers = capture.getHeaders();
+        if (capture.getStatusCode() == null || capture.getStatusCode().value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null
+                || !(cacheControl.contains("no-store") || cacheControl.contains("private") || cacheControl.contains("no-cache"));
+    }
+
+    private static CachedResponse toCachedResponse(String path, ResponseCapture capture, Duration ttl) {
+        byte[] body = capture.getBody();
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(capture.getHeaders());
+        UNCACHED_HEADERS.forEach(headers::remove);
+        String etag = capture.getHeaders().getETag();
+        if (etag == null) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        }
+        headers.remove(HttpHeaders.ETAG);
+        long now = System.currentTimeMillis();
+        return new CachedResponse(path, capture.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), body,
+                etag, now, now + ttl.toMillis());
+    }
+
+    private static Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        headers.set(HttpHeaders.AGE, String.valueOf((System.currentTimeMillis() - cached.storedAtMillis()) / 1000));
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        String strongEtag = stripWeak(etag);
+        for (String candidate : request.getHeaders().getIfNoneMatch()) {
+            if ("*".equals(candidate) || stripWeak(candidate).equals(strongEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * Copies the body into a side buffer while it streams to the client, so a miss is not
+     * delayed by caching. Bodies larger than the entry cap are passed through uncaptured.
+     */
+    private static final class ResponseCapture extends ServerHttpResponseDecorator {
+
+        private final int maxBytes;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private volatile boolean overflow;
+        private volatile boolean complete;
+
+        private ResponseCapture(ServerHttpResponse delegate, int maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(this::capture)
+                    .doOnComplete(() -> complete = !overflow));
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        byte[] getBody() {
+            return body.toByteArray();
+        }
+
+        private void capture(DataBuffer buffer) {
+            int count = buffer.readableByteCount();
+            if (overflow) {
+                return;
+            }
+            if (body.size() + count > maxBytes) {
+                overflow = true;
+                body.reset();
+                return;
+            }
+            byte[] bytes = new byte[count];
+            int position = buffer.readPosition();
+            buffer.read(bytes);
+            buffer.readPosition(position);
+            body.write(bytes, 0, count);
+        }
+    }
+
+    @Data
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(5);
+        // Path patterns within the route that may be cached; empty means every GET on the route
+        private List<String> paths = new ArrayList<>();
+        // Request headers that select a different cached variant, e.g. Accept
+        private List<String> varyHeaders = new ArrayList<>(List.of(HttpHeaders.ACCEPT));
+        // Writes that change resources outside their own path, e.g. a batch status update
+        private List<Eviction> evictions = new ArrayList<>();
+    }
+
+    @Data
+    public static class Eviction {
+        // Path pattern of the write
+        private String path;
+        // Every cached path below this prefix is evicted when the write completes
+        private String prefix;
+    }
+}
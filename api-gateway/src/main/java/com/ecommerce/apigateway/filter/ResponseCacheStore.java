@@ -0,0 +1,172 @@
+package com.ecommerce.apigateway.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared in-memory store behind the ResponseCache filter: an access-ordered map capped by
+ * total bytes (least recently used entries go first) plus the table of in-flight upstream
+ * calls used to coalesce concurrent misses for the same key.
+ *
+ * Cached keys and in-flight leaders are also indexed by path, so a write evicts only the
+ * entries of the paths it touches. A leader whose path is invalidated while its upstream
+ * call is running does not store the answer, which may predate the write.
+ */
+@Component
+public class ResponseCacheStore {
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final Duration coalesceTimeout;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(1024, 0.75f, true);
+    private final NavigableMap<String, Set<String>> keysByPath = new TreeMap<>();
+    private final NavigableMap<String, Set<CompletableFuture<CachedResponse>>> leadersByPath = new TreeMap<>();
+    private final Set<CompletableFuture<CachedResponse>> invalidatedLeaders = new HashSet<>();
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private long usedBytes;
+
+    public ResponseCacheStore(@Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                              @Value("${gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                              @Value("${gateway.response-cache.coalesce-timeout:5s}") Duration coalesceTimeout) {
+        this.maxBytes = maxSize.toBytes();
+        this.maxEntryBytes = (int) Math.min(maxEntrySize.toBytes(), Integer.MAX_VALUE);
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
+    public int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    public Duration getCoalesceTimeout() {
+        return coalesceTimeout;
+    }
+
+    public synchronized CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response != null && response.isExpired(System.currentTimeMillis())) {
+            remove(key);
+            return null;
+        }
+        return response;
+    }
+
+    // Drops every cached variant of the written path and of the resources above it, so that
+    // PUT /api/shipping/5/status also evicts GET /api/shipping/5
+    public synchronized void invalidatePath(String path) {
+        for (String current = path; !current.isEmpty(); current = current.substring(0, current.lastIndexOf('/'))) {
+            invalidate(keysByPath.get(current), leadersByPath.get(current));
+        }
+    }
+
+    // Drops every cached path below prefix, for writes that change many resources at once
+    public synchronized void invalidateSubtree(String prefix) {
+        String from = prefix + "/";
+        String to = prefix + "0"; // '0' follows '/', so the range holds exactly the paths under prefix
+        for (Set<CompletableFuture<CachedResponse>> leaders : leadersByPath.subMap(from, to).values()) {
+            invalidatedLeaders.addAll(leaders);
+        }
+        for (String key : keysOf(keysByPath.subMap(from, to).values())) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Registers {@code leader} as the upstream call for {@code key}. Returns the future of the
+     * call already in flight if there is one, or null when the caller became the leader.
+     */
+    public CompletableFuture<CachedResponse> joinInFlight(String key, String path, CompletableFuture<CachedResponse> leader) {
+        CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, leader);
+        if (existing == null) {
+            synchronized (this) {
+                leadersByPath.computeIfAbsent(path, p -> new HashSet<>()).add(leader);
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Ends the leader's upstream call, caching its response unless the path was written meanwhile.
+     * response is null when the upstream answer was not cacheable; waiters then go upstream themselves.
+     */
+    public void completeInFlight(String key, String path, CompletableFuture<CachedResponse> leader,
+                                 CachedResponse response) {
+        boolean invalidated;
+        synchronized (this) {
+            Set<CompletableFuture<CachedResponse>> leaders = leadersByPath.get(path);
+            if (leaders != null && leaders.remove(leader) && leaders.isEmpty()) {
+                leadersByPath.remove(path);
+            }
+            invalidated = invalidatedLeaders.remove(leader);
+            if (response != null && !invalidated) {
+                put(key, response);
+            }
+        }
+        inFlight.remove(key, leader);
+        leader.complete(invalidated ? null : response);
+    }
+
+    private void put(String key, CachedResponse response) {
+        if (response.sizeInBytes() > maxBytes) {
+            return;
+        }
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            usedBytes -= previous.sizeInBytes();
+            unindex(previous.path(), key);
+        }
+        usedBytes += response.sizeInBytes();
+        keysByPath.computeIfAbsent(response.path(), p -> new HashSet<>()).add(key);
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = eldest.next();
+            usedBytes -= entry.getValue().sizeInBytes();
+            unindex(entry.getValue().path(), entry.getKey());
+            eldest.remove();
+        }
+    }
+
+    private void invalidate(Set<String> keys, Set<CompletableFuture<CachedResponse>> leaders) {
+        if (leaders != null) {
+            invalidatedLeaders.addAll(leaders);
+        }
+        if (keys != null) {
+            for (String key : List.copyOf(keys)) {
+                remove(key);
+            }
+        }
+    }
+
+    private void remove(String key) {
+        CachedResponse response = entries.remove(key);
+        if (response != null) {
+            usedBytes -= response.sizeInBytes();
+            unindex(response.path(), key);
+        }
+    }
+
+    private void unindex(String path, String key) {
+        Set<String> keys = keysByPath.get(path);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByPath.remove(path);
+        }
+    }
+
+    private static List<String> keysOf(Collection<Set<String>> keySets) {
+        return keySets.stream().flatMap(Set::stream).toList();
+    }
+}
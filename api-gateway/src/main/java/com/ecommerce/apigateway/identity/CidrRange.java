@@ -0,0 +1,49 @@
+package com.ecommerce.apigateway.identity;
+
+import io.netty.util.NetUtil;
+
+/**
+ * IPv4 or IPv6 network in CIDR notation. Works on raw address bytes, so matching
+ * never resolves a host name.
+ */
+final class CidrRange {
+
+    private final byte[] network;
+    private final int prefixLength;
+
+    private CidrRange(byte[] network, int prefixLength) {
+        this.network = network;
+        this.prefixLength = prefixLength;
+    }
+
+    static CidrRange parse(String cidr) {
+        String[] parts = cidr.trim().split("/", 2);
+        byte[] network = NetUtil.createByteArrayFromIpAddressString(parts[0]);
+        if (network == null) {
+            throw new IllegalArgumentException("Not an IP literal: " + cidr);
+        }
+        int prefixLength = parts.length == 2 ? Integer.parseInt(parts[1]) : network.length * 8;
+        if (prefixLength < 0 || prefixLength > network.length * 8) {
+            throw new IllegalArgumentException("Invalid prefix length: " + cidr);
+        }
+        return new CidrRange(network, prefixLength);
+    }
+
+    boolean contains(byte[] address) {
+        if (address == null || address.length != network.length) {
+            return false;
+        }
+        int fullBytes = prefixLength / 8;
+        for (int i = 0; i < fullBytes; i++) {
+            if (address[i] != network[i]) {
+                return false;
+            }
+        }
+        int remainingBits = prefixLength % 8;
+        if (remainingBits == 0) {
+            return true;
+        }
+        int mask = 0xFF << (8 - remainingBits);
+        return (address[fullBytes] & mask) == (network[fullBytes] & mask);
+    }
+}
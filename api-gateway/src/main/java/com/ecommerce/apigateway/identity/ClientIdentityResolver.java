@@ -0,0 +1,239 @@
+package com.ecommerce.apigateway.identity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.NetUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives the rate-limit key of a request without blocking the event loop: no reverse DNS,
+ * no I/O, only header parsing and address bytes. Strategies are tried in the configured
+ * order; "ip" always succeeds and is the final fallback. API keys only count when they are
+ * registered, so rotating the header cannot mint fresh buckets. Verified JWT identities are
+ * kept in a bounded LRU map keyed by the token's hash, so repeat callers skip signature checks.
+ */
+@Component
+public class ClientIdentityResolver {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final Base64.Decoder BASE64_URL = Base64.getUrlDecoder();
+    private static final List<String> KNOWN_STRATEGIES = List.of("api-key", "jwt", "ip");
+
+    private final List<String> strategies;
+    private final String apiKeyHeader;
+    private final Map<String, String> clientsByApiKeyHash = new HashMap<>();
+    private final List<CidrRange> trustedProxies = new ArrayList<>();
+    private final byte[] jwtSecret;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedIdentity> jwtCache;
+    private final ThreadLocal<Mac> jwtMac;
+
+    public ClientIdentityResolver(ObjectMapper objectMapper,
+                                  @Value("${gateway.client-identity.strategies:api-key,jwt,ip}") List<String> strategies,
+                                  @Value("${gateway.client-identity.api-key-header:X-API-Key}") String apiKeyHeader,
+                                  @Value("${gateway.client-identity.api-keys:}") List<String> apiKeys,
+                                  @Value("${gateway.client-identity.trusted-proxies:}") List<String> trustedProxies,
+                                  @Value("${gateway.client-identity.jwt.hmac-secret:}") String jwtSecret,
+                                  @Value("${gateway.client-identity.cache-size:10000}") int cacheSize) {
+        this.objectMapper = objectMapper;
+        this.strategies = strategies.stream().map(String::trim).toList();
+        for (String strategy : this.strategies) {
+            if (!KNOWN_STRATEGIES.contains(strategy)) {
+                throw new IllegalArgumentException("Unknown client identity strategy: " + strategy);
+            }
+        }
+        this.apiKeyHeader = apiKeyHeader;
+        // Entries are "client:sha256-hex", so the configuration never holds the keys themselves
+        for (String entry : apiKeys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":", 2);
+            if (parts.length != 2 || parts[0].isBlank() || !parts[1].matches("[0-9a-fA-F]{64}")) {
+                throw new IllegalArgumentException("API key entries must be client:sha256-hex, got: " + entry);
+            }
+            clientsByApiKeyHash.put(parts[1].toLowerCase(), parts[0]);
+        }
+        for (String cidr : trustedProxies) {
+            if (!cidr.isBlank()) {
+                this.trustedProxies.add(CidrRange.parse(cidr));
+            }
+        }
+        this.jwtSecret = jwtSecret.getBytes(StandardCharsets.UTF_8);
+        this.jwtCache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedIdentity> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.jwtMac = ThreadLocal.withInitial(this::newJwtMac);
+    }
+
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return Mono.just(resolveIdentity(exchange.getRequest()));
+    }
+
+    String resolveIdentity(ServerHttpRequest request) {
+        for (String strategy : strategies) {
+            String identity = switch (strategy) {
+                case "api-key" -> fromApiKey(request);
+                case "jwt" -> fromJwt(request);
+                default -> "ip:" + clientIp(request);
+            };
+            if (identity != null) {
+                return identity;
+            }
+        }
+        return "ip:" + clientIp(request);
+    }
+
+    private String fromApiKey(ServerHttpRequest request) {
+        String apiKey = request.getHeaders().getFirst(apiKeyHeader);
+        if (clientsByApiKeyHash.isEmpty() || apiKey == null || apiKey.isBlank()) {
+            return null;
+        }
+        // Unknown keys fall through to the next strategy instead of getting a bucket of their own
+        String client = clientsByApiKeyHash.get(HexFormat.of().formatHex(sha256(apiKey)));
+        return client == null ? null : "key:" + client;
+    }
+
+    private String fromJwt(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (jwtSecret.length == 0 || authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null; // without a verification key a subject claim could be forged freely
+        }
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        // Hashing is far cheaper than verifying, and keeps raw tokens out of the cache
+        String tokenHash = HexFormat.of().formatHex(sha256(token));
+        CachedIdentity cached = cachedJwt(tokenHash);
+        if (cached != null) {
+            return cached.expiresAtSeconds() > nowSeconds ? cached.identity() : null;
+        }
+
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            byte[] expected = jwtMac.get().doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, BASE64_URL.decode(parts[2]))) {
+                return null;
+            }
+            JsonNode header = objectMapper.readTree(BASE64_URL.decode(parts[0]));
+            JsonNode claims = objectMapper.readTree(BASE64_URL.decode(parts[1]));
+            if (!"HS256".equals(header.path("alg").asText()) || !claims.hasNonNull("sub")) {
+                return null;
+            }
+            long expiresAt = claims.path("exp").asLong(Long.MAX_VALUE);
+            if (expiresAt <= nowSeconds) {
+                return null;
+            }
+            String identity = "sub:" + claims.get("sub").asText();
+            rememberJwt(tokenHash, new CachedIdentity(identity, expiresAt));
+            return identity;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    // Walks X-Forwarded-For from the nearest hop and returns the first address that is not a
+    // trusted proxy. The header is ignored unless the direct peer is itself trusted.
+    private String clientIp(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        InetAddress peer = remote.getAddress();
+        if (peer == null) {
+            return remote.getHostString(); // unresolved address: use it verbatim, never look it up
+        }
+        if (trustedProxies.isEmpty() || !isTrusted(peer.getAddress())) {
+            return peer.getHostAddress();
+        }
+
+        List<String> forwardedFor = request.getHeaders().get("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return peer.getHostAddress();
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : forwardedFor) {
+            for (String hop : header.split(",")) {
+                hops.add(hop.trim());
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            byte[] address = NetUtil.createByteArrayFromIpAddressString(hops.get(i));
+            if (address == null) {
+                break; // not an IP literal, so nothing further left can be trusted either
+            }
+            if (!isTrusted(address)) {
+                return hops.get(i);
+            }
+        }
+        return peer.getHostAddress();
+    }
+
+    private boolean isTrusted(byte[] address) {
+        for (CidrRange range : trustedProxies) {
+            if (range.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedIdentity cachedJwt(String tokenHash) {
+        synchronized (jwtCache) {
+            return jwtCache.get(tokenHash);
+        }
+    }
+
+    private void rememberJwt(String tokenHash, CachedIdentity identity) {
+        synchronized (jwtCache) {
+            jwtCache.put(tokenHash, identity);
+        }
+    }
+
+    private Mac newJwtMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(jwtSecret.length == 0 ? new byte[1] : jwtSecret, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record CachedIdentity(String identity, long expiresAtSeconds) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Embedded stand-in for a shared store, used for a single gateway node and in tests.
+ * Counters expire like the Redis keys do, so both stores behave the same way.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<Long> incrementAndGet(String key, long delta, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Counter counter = counters.compute(key, (k, current) -> {
+            long total = current == null || current.expiresAtMillis <= now ? delta : current.total + delta;
+            return new Counter(total, now + ttl.toMillis());
+        });
+        return Mono.just(counter.total);
+    }
+
+    private record Counter(long total, long expiresAtMillis) {
+    }
+}
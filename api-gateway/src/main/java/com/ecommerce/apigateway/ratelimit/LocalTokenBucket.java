@@ -0,0 +1,93 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in GCRA form: the whole state is the theoretical arrival time of
+ * the next token, so acquiring is one compare-and-set. Idle time accrues burst credit up to
+ * the bucket capacity. A request that would have to wait is granted a future slot if the
+ * wait fits its budget, which queues callers in arrival order without holding a thread.
+ */
+final class LocalTokenBucket {
+
+    // Returned by tryAcquire when the request does not fit the wait budget
+    static final long REJECTED = -1;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    private final AtomicLong unsynced = new AtomicLong();
+    private volatile long lastGlobalTotal = -1;
+    private volatile long lastUsedNanos;
+
+    LocalTokenBucket(double replenishRate, long burstCapacity, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / replenishRate));
+        this.toleranceNanos = intervalNanos * burstCapacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.lastUsedNanos = nowNanos;
+    }
+
+    /**
+     * Takes {@code tokens} and returns how long the caller must wait before proceeding, 0 when
+     * it may proceed at once, or {@link #REJECTED} when the wait would exceed {@code maxWaitNanos}.
+     */
+    long tryAcquire(int tokens, long maxWaitNanos, long nowNanos) {
+        lastUsedNanos = nowNanos;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + tokens * intervalNanos;
+            long wait = next - nowNanos - toleranceNanos;
+            if (wait > maxWaitNanos) {
+                return REJECTED;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                unsynced.addAndGet(tokens);
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    // Gives back tokens taken by tryAcquire when a later check rejected the request
+    void refund(int tokens) {
+        theoreticalArrival.addAndGet(-tokens * intervalNanos);
+        unsynced.addAndGet(-tokens);
+    }
+
+    // Charges tokens consumed on other gateway nodes; at most empties the bucket
+    void debit(long tokens, long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.min(Math.max(current, nowNanos) + tokens * intervalNanos, nowNanos + toleranceNanos);
+            if (next <= current || theoreticalArrival.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    long remaining(long nowNanos) {
+        long used = Math.max(theoreticalArrival.get() - nowNanos, 0);
+        return Math.max(0, (toleranceNanos - used) / intervalNanos);
+    }
+
+    long takeUnsynced() {
+        return unsynced.getAndSet(0);
+    }
+
+    void returnUnsynced(long tokens) {
+        unsynced.addAndGet(tokens);
+    }
+
+    // Applies a store answer and returns how many tokens other nodes consumed since the last sync
+    long applyGlobalTotal(long globalTotal, long localDelta) {
+        long previous = lastGlobalTotal;
+        lastGlobalTotal = globalTotal;
+        if (previous < 0 || globalTotal < previous + localDelta) {
+            return 0; // first sync, or the shared counter expired and restarted
+        }
+        return globalTotal - previous - localDelta;
+    }
+
+    boolean isIdleSince(long cutoffNanos) {
+        return lastUsedNanos < cutoffNanos && theoreticalArrival.get() < cutoffNanos && unsynced.get() == 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis-backed store shared by all gateway nodes. INCRBY and PEXPIRE run in one script
+ * so a counter never outlives its last update by more than the ttl.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.store", havingValue = "redis")
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of(
+            "local total = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "return total", Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    public RedisTokenBucketStore(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Long> incrementAndGet(String key, long delta, Duration ttl) {
+        return redisTemplate.execute(INCREMENT_SCRIPT, List.of("rate-limit:" + key),
+                        List.of(String.valueOf(delta), String.valueOf(ttl.toMillis())))
+                .next();
+    }
+}
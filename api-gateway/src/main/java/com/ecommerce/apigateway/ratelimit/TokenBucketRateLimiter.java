@@ -0,0 +1,161 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway rate limiter with a per-client bucket (route + resolved key) and a per-route
+ * bucket. Decisions are taken locally on lock-free buckets; a background sync exchanges
+ * consumption with the TokenBucketStore so N gateway nodes share one budget instead of
+ * N independent ones. Requests that would exceed the bucket are delayed for up to
+ * {@code maxWait} before they are rejected.
+ */
+@Primary
+@Component
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "token-bucket-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+    public static final String QUEUED_MS_HEADER = "X-RateLimit-Queued-Ms";
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+
+    private final TokenBucketStore store;
+    private final Duration syncInterval;
+    private final Duration idleTimeout;
+    private final Config defaultConfig = new Config();
+    private final Map<String, LocalTokenBucket> buckets = new ConcurrentHashMap<>();
+    private Disposable syncTask;
+
+    public TokenBucketRateLimiter(TokenBucketStore store, ConfigurationService configurationService,
+                                  @Value("${gateway.rate-limit.sync-interval:100ms}") Duration syncInterval,
+                                  @Value("${gateway.rate-limit.idle-timeout:60s}") Duration idleTimeout) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.syncInterval = syncInterval;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @PostConstruct
+    public void startSync() {
+        syncTask = Flux.interval(syncInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> syncAll())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stopSync() {
+        if (syncTask != null) {
+            syncTask.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+        long maxWaitNanos = config.getMaxWait().toNanos();
+        int tokens = config.getRequestedTokens();
+
+        LocalTokenBucket clientBucket = bucket(routeId + ":" + id, config.getReplenishRate(),
+                config.getBurstCapacity(), now);
+        long clientWait = clientBucket.tryAcquire(tokens, maxWaitNanos, now);
+        if (clientWait == LocalTokenBucket.REJECTED) {
+            return Mono.just(new Response(false, headers(config, clientBucket.remaining(now), 0)));
+        }
+
+        long routeWait = 0;
+        if (config.getRouteReplenishRate() > 0) {
+            LocalTokenBucket routeBucket = bucket(routeId, config.getRouteReplenishRate(),
+                    config.getRouteBurstCapacity(), now);
+            routeWait = routeBucket.tryAcquire(tokens, maxWaitNanos, now);
+            if (routeWait == LocalTokenBucket.REJECTED) {
+                clientBucket.refund(tokens);
+                return Mono.just(new Response(false, headers(config, clientBucket.remaining(now), 0)));
+            }
+        }
+
+        long wait = Math.max(clientWait, routeWait);
+        Response response = new Response(true, headers(config, clientBucket.remaining(now), wait));
+        return wait == 0 ? Mono.just(response) : Mono.delay(Duration.ofNanos(wait)).thenReturn(response);
+    }
+
+    private LocalTokenBucket bucket(String key, double replenishRate, long burstCapacity, long now) {
+        return buckets.computeIfAbsent(key, k -> new LocalTokenBucket(replenishRate, burstCapacity, now));
+    }
+
+    private Map<String, String> headers(Config config, long remaining, long waitNanos) {
+        Map<String, String> headers = new HashMap<>();
+        if (config.isIncludeHeaders()) {
+            headers.put(REMAINING_HEADER, String.valueOf(remaining));
+            headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+            headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+            if (waitNanos > 0) {
+                headers.put(QUEUED_MS_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+            }
+        }
+        return headers;
+    }
+
+    private Mono<Void> syncAll() {
+        long now = System.nanoTime();
+        long idleCutoff = now - idleTimeout.toNanos();
+        buckets.entrySet().removeIf(entry -> entry.getValue().isIdleSince(idleCutoff));
+        Duration ttl = idleTimeout.plus(syncInterval);
+        return Flux.fromIterable(buckets.entrySet())
+                .flatMap(entry -> sync(entry.getKey(), entry.getValue(), ttl), 64)
+                .then();
+    }
+
+    private Mono<Void> sync(String key, LocalTokenBucket bucket, Duration ttl) {
+        long delta = bucket.takeUnsynced();
+        return store.incrementAndGet(key, delta, ttl)
+                .doOnNext(total -> {
+                    long consumedElsewhere = bucket.applyGlobalTotal(total, delta);
+                    if (consumedElsewhere > 0) {
+                        bucket.debit(consumedElsewhere, System.nanoTime());
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    // Keep limiting locally and report the consumption on the next successful sync
+                    bucket.returnUnsynced(delta);
+                    log.debug("Rate limit sync failed for {}", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    @Data
+    public static class Config {
+        // Per-client tokens per second and bucket size (burst credit accrued while idle)
+        private double replenishRate = 10;
+        private long burstCapacity = 20;
+        // Aggregate budget for the whole route across all clients; 0 disables the route bucket
+        private double routeReplenishRate = 0;
+        private long routeBurstCapacity = 0;
+        private int requestedTokens = 1;
+        // How long a request may be held back waiting for a token before it is rejected
+        private Duration maxWait = Duration.ofMillis(250);
+        private boolean includeHeaders = true;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.apigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Shared consumption counters that keep the token buckets of several gateway nodes in
+ * step. Each node adds what it consumed since its last exchange and learns the global
+ * total, so the difference is what the other nodes consumed meanwhile.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Atomically adds {@code delta} to the counter for {@code key}, refreshes its expiry to
+     * {@code ttl} and returns the new total.
+     */
+    Mono<Long> incrementAndGet(String key, long delta, Duration ttl);
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.apigateway.routing;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.CONNECT_TIMEOUT_ATTR;
+
+/**
+ * Routing filter that sends each route through its own pooled HttpClient from the
+ * UpstreamHttpClientRegistry. Replaces the default NettyRoutingFilter, which is switched
+ * off with spring.cloud.gateway.global-filter.netty-routing.enabled=false.
+ */
+@Component
+public class PooledNettyRoutingFilter extends NettyRoutingFilter {
+
+    private final HttpClient defaultClient;
+    private final UpstreamHttpClientRegistry registry;
+
+    public PooledNettyRoutingFilter(HttpClient httpClient, ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                    HttpClientProperties properties, UpstreamHttpClientRegistry registry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.defaultClient = httpClient;
+        this.registry = registry;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        HttpClient client = registry.isEnabled() ? registry.clientFor(route.getId()) : defaultClient;
+        Object connectTimeout = route.getMetadata().get(CONNECT_TIMEOUT_ATTR);
+        if (connectTimeout != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Integer.parseInt(connectTimeout.toString()));
+        }
+        return client;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.apigateway.routing;
+
+import com.ecommerce.apigateway.config.UpstreamPoolProperties;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds and caches one HttpClient with its own connection pool per route. Pools publish
+ * Reactor Netty's Micrometer metrics tagged with the pool name "upstream-<route-id>":
+ * total/active/idle/pending connections, and pending-acquire time for pool-acquire latency.
+ */
+@Component
+public class UpstreamHttpClientRegistry {
+
+    private final UpstreamPoolProperties poolProperties;
+    private final HttpClientProperties httpClientProperties;
+    private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+    private final Map<String, ConnectionProvider> providers = new ConcurrentHashMap<>();
+
+    public UpstreamHttpClientRegistry(UpstreamPoolProperties poolProperties,
+                                      HttpClientProperties httpClientProperties) {
+        this.poolProperties = poolProperties;
+        this.httpClientProperties = httpClientProperties;
+    }
+
+    public boolean isEnabled() {
+        return poolProperties.isEnabled();
+    }
+
+    public HttpClient clientFor(String routeId) {
+        return clients.computeIfAbsent(routeId, this::create);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private HttpClient create(String routeId) {
+        UpstreamPoolProperties.Pool pool = poolProperties.getRoutes()
+                .getOrDefault(routeId, new UpstreamPoolProperties.Pool())
+                .mergedOver(poolProperties.getDefaults());
+
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("upstream-" + routeId).metrics(true);
+        if (pool.getMaxConnections() != null) {
+            builder.maxConnections(pool.getMaxConnections());
+        }
+        if (pool.getPendingAcquireMaxCount() != null) {
+            builder.pendingAcquireMaxCount(pool.getPendingAcquireMaxCount());
+        }
+        if (pool.getPendingAcquireTimeout() != null) {
+            builder.pendingAcquireTimeout(pool.getPendingAcquireTimeout());
+        }
+        if (pool.getMaxIdleTime() != null) {
+            builder.maxIdleTime(pool.getMaxIdleTime());
+        }
+        if (pool.getMaxLifeTime() != null) {
+            builder.maxLifeTime(pool.getMaxLifeTime());
+        }
+        if (pool.getEvictionInterval() != null) {
+            builder.evictInBackground(pool.getEvictionInterval());
+        }
+        if (Boolean.TRUE.equals(pool.getLifo())) {
+            builder.lifo();
+        }
+        ConnectionProvider provider = builder.build();
+        providers.put(routeId, provider);
+
+        boolean keepAlive = !Boolean.FALSE.equals(pool.getKeepAlive());
+        HttpClient client = HttpClient.create(provider)
+                .keepAlive(keepAlive)
+                .option(ChannelOption.SO_KEEPALIVE, keepAlive)
+                .compress(httpClientProperties.isCompression())
+                // One tag value per route keeps the client meters' cardinality bounded
+                .metrics(true, uri -> routeId);
+        if (httpClientProperties.getConnectTimeout() != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientProperties.getConnectTimeout());
+        }
+        if (Boolean.TRUE.equals(pool.getH2c())) {
+            client = client.protocol(HttpProtocol.H2C);
+        }
+        return client;
+    }
+}
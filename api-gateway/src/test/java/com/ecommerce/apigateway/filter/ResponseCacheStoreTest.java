@@ -0,0 +1,65 @@
+package com.ecommerce.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheStoreTest {
+
+    private final ResponseCacheStore store = new ResponseCacheStore(DataSize.ofMegabytes(1), DataSize.ofKilobytes(64),
+            Duration.ofSeconds(5));
+
+    @Test
+    void writeEvictsItsPathAndTheResourcesAboveIt() {
+        cache("/api/shipping/5");
+        cache("/api/shipping/6");
+
+        store.invalidatePath("/api/shipping/5/status");
+
+        assertThat(store.get("/api/shipping/5")).isNull();
+        assertThat(store.get("/api/shipping/6")).isNotNull();
+    }
+
+    @Test
+    void subtreeEvictionDropsEveryPathBelowThePrefix() {
+        cache("/api/shipping/5");
+        cache("/api/shipping/6");
+        cache("/api/shippingx/7");
+
+        store.invalidateSubtree("/api/shipping");
+
+        assertThat(store.get("/api/shipping/5")).isNull();
+        assertThat(store.get("/api/shipping/6")).isNull();
+        assertThat(store.get("/api/shippingx/7")).isNotNull();
+    }
+
+    @Test
+    void leaderInvalidatedWhileInFlightDoesNotCacheItsAnswer() {
+        CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+        assertThat(store.joinInFlight("/api/shipping/5", "/api/shipping/5", leader)).isNull();
+
+        store.invalidatePath("/api/shipping/5/status");
+        store.completeInFlight("/api/shipping/5", "/api/shipping/5", leader, response("/api/shipping/5"));
+
+        assertThat(store.get("/api/shipping/5")).isNull();
+        // Coalesced waiters go upstream themselves instead of reusing the stale answer
+        assertThat(leader.join()).isNull();
+    }
+
+    private void cache(String path) {
+        CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+        store.joinInFlight(path, path, leader);
+        store.completeInFlight(path, path, leader, response(path));
+    }
+
+    private static CachedResponse response(String path) {
+        long now = System.currentTimeMillis();
+        return new CachedResponse(path, HttpStatus.OK, HttpHeaders.EMPTY, new byte[16], "\"etag\"", now, now + 60_000);
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.apigateway.identity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.NetUtil;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Runs every strategy on Reactor's parallel scheduler, whose threads BlockHound treats as
+ * event-loop threads, so any blocking call (including reverse DNS) fails the test.
+ */
+class ClientIdentityResolverTest {
+
+    private static final String JWT_SECRET = "test-secret";
+    private static final String REGISTERED_KEY = "registered-api-key";
+
+    private final ClientIdentityResolver resolver = new ClientIdentityResolver(new ObjectMapper(),
+            List.of("api-key", "jwt", "ip"), "X-API-Key",
+            List.of("mobile-app:" + sha256Hex(REGISTERED_KEY)),
+            List.of("10.0.0.0/8"), JWT_SECRET, 100);
+
+    @BeforeAll
+    static void installBlockHound() {
+        // Load the JSON, digest and MAC classes on the test thread first: class loading reads
+        // jar files, which is a one-off cost at startup and not what these tests are after
+        ClientIdentityResolver warmUp = new ClientIdentityResolverTest().resolver;
+        warmUp.resolveIdentity(request("203.0.113.7").header("X-API-Key", REGISTERED_KEY).build());
+        warmUp.resolveIdentity(request("203.0.113.7").header(HttpHeaders.AUTHORIZATION,
+                "Bearer " + jwt("{\"alg\":\"HS256\"}", "{\"sub\":\"warm\"}", JWT_SECRET)).build());
+
+        // Name lookups are not on BlockHound's default list, so reverse DNS is marked explicitly
+        BlockHound.install(builder -> builder
+                .markAsBlocking(InetAddress.class, "getHostName", "()Ljava/lang/String;")
+                .markAsBlocking(InetAddress.class, "getCanonicalHostName", "()Ljava/lang/String;")
+                .markAsBlocking(InetAddress.class, "getAllByName", "(Ljava/lang/String;)[Ljava/net/InetAddress;"));
+    }
+
+    @Test
+    void detectsReverseDnsOnTheEventLoop() {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 443);
+        StepVerifier.create(Mono.fromCallable(address::getHostName).subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify();
+    }
+
+    @Test
+    void resolvesThePeerAddressWithoutBlocking() {
+        assertResolves(request("203.0.113.7").build(), "ip:203.0.113.7");
+        assertResolves(request("2001:db8::1").build(), "ip:2001:db8:0:0:0:0:0:1");
+    }
+
+    @Test
+    void honoursForwardedForOnlyFromTrustedProxies() {
+        assertResolves(request("10.1.2.3").header("X-Forwarded-For", "198.51.100.4, 10.9.9.9").build(),
+                "ip:198.51.100.4");
+        assertResolves(request("203.0.113.7").header("X-Forwarded-For", "198.51.100.4").build(),
+                "ip:203.0.113.7");
+    }
+
+    @Test
+    void keysRegisteredApiKeysByClient() {
+        assertResolves(request("203.0.113.7").header("X-API-Key", REGISTERED_KEY).build(), "key:mobile-app");
+    }
+
+    @Test
+    void fallsBackToTheAddressForUnknownApiKeys() {
+        // Rotating an unregistered key must not produce a fresh identity per request
+        assertResolves(request("203.0.113.7").header("X-API-Key", "made-up-1").build(), "ip:203.0.113.7");
+        assertResolves(request("203.0.113.7").header("X-API-Key", "made-up-2").build(), "ip:203.0.113.7");
+    }
+
+    @Test
+    void keysVerifiedTokensBySubject() {
+        String token = jwt("{\"alg\":\"HS256\",\"typ\":\"JWT\"}", "{\"sub\":\"alice\"}", JWT_SECRET);
+        MockServerHttpRequest request = request("203.0.113.7")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build();
+        assertResolves(request, "sub:alice");
+        // The second call is answered from the identity cache
+        assertResolves(request, "sub:alice");
+    }
+
+    @Test
+    void ignoresTokensWithABadSignature() {
+        String token = jwt("{\"alg\":\"HS256\",\"typ\":\"JWT\"}", "{\"sub\":\"alice\"}", "other-secret");
+        assertResolves(request("203.0.113.7").header(HttpHeaders.AUTHORIZATION, "Bearer " + token).build(),
+                "ip:203.0.113.7");
+    }
+
+    private void assertResolves(MockServerHttpRequest request, String expected) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        StepVerifier.create(Mono.defer(() -> resolver.resolve(exchange)).subscribeOn(Schedulers.parallel()))
+                .expectNext(expected)
+                .verifyComplete();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String peer) {
+        try {
+            // Built from the literal's bytes, so creating the address never resolves a name
+            InetAddress address = InetAddress.getByAddress(NetUtil.createByteArrayFromIpAddressString(peer));
+            return MockServerHttpRequest.get("/api/payments/1").remoteAddress(new InetSocketAddress(address, 50000));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String jwt(String header, String claims, String secret) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String signingInput = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
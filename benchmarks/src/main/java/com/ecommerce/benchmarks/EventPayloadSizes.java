@@ -0,0 +1,25 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Prints bytes per event for each wire format:
+ * {@code java -cp target/benchmarks.jar com.ecommerce.benchmarks.EventPayloadSizes}
+ */
+public class EventPayloadSizes {
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        System.out.printf("%-26s %8s %8s %8s%n", "event", "binary", "json", "text");
+        for (String type : new String[]{"PAYMENT_PROCESSED", "SHIPMENT_STATUS_CHANGED"}) {
+            DomainEvent event = SampleEvents.of(type);
+            System.out.printf("%-26s %8d %8d %8d%n", type,
+                    EventCodec.encode(event).length,
+                    objectMapper.writeValueAsBytes(event).length,
+                    SampleEvents.legacyText(event).length);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.EventCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize/deserialize cost of the binary event schema against JSON and the legacy text messages.
+ * Run {@link EventPayloadSizes} for the bytes-per-event side of the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    @Param({"PAYMENT_PROCESSED", "SHIPMENT_STATUS_CHANGED"})
+    public String eventType;
+
+    private DomainEvent event;
+    private ObjectMapper objectMapper;
+    private byte[] binary;
+    private byte[] json;
+    private byte[] text;
+
+    @Setup
+    public void setUp() throws IOException {
+        event = SampleEvents.of(eventType);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        binary = EventCodec.encode(event);
+        json = objectMapper.writeValueAsBytes(event);
+        text = SampleEvents.legacyText(event);
+    }
+
+    @Benchmark
+    public byte[] binarySerialize() {
+        return EventCodec.encode(event);
+    }
+
+    @Benchmark
+    public DomainEvent binaryDeserialize() {
+        return EventCodec.decode(binary);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() throws IOException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() throws IOException {
+        return objectMapper.readValue(json, event.getClass());
+    }
+
+    @Benchmark
+    public byte[] textSerialize() {
+        return SampleEvents.legacyText(event);
+    }
+
+    @Benchmark
+    public long textDeserialize() {
+        return SampleEvents.parseLegacyText(text);
+    }
+}
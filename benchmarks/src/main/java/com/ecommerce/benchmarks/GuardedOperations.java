@@ -0,0 +1,51 @@
+package com.ecommerce.benchmarks;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Trivial operations behind the same annotation stacks the services use, so a benchmark
+ * measures only what the decorators add per invocation.
+ */
+@Service
+public class GuardedOperations {
+
+    public Object unguarded(Object value) {
+        return value;
+    }
+
+    @CircuitBreaker(name = "bench", fallbackMethod = "fallback")
+    public Object circuitBreaker(Object value) {
+        return value;
+    }
+
+    // Stack of the synchronous service reads and writes, e.g. ShippingServiceImpl.createShipment
+    @CircuitBreaker(name = "bench", fallbackMethod = "fallback")
+    @RateLimiter(name = "bench")
+    @Retry(name = "bench")
+    public Object syncStack(Object value) {
+        return value;
+    }
+
+    // Stack of PaymentServiceImpl.processPayment
+    @CircuitBreaker(name = "bench", fallbackMethod = "asyncFallback")
+    @RateLimiter(name = "bench")
+    @Retry(name = "bench")
+    @TimeLimiter(name = "bench")
+    public CompletableFuture<Object> asyncStack(Object value) {
+        return CompletableFuture.completedFuture(value);
+    }
+
+    public Object fallback(Object value, Exception e) {
+        return null;
+    }
+
+    public CompletableFuture<Object> asyncFallback(Object value, Exception e) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the service hot-path benchmarks with the GC profiler, so every result carries
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation) next to its latency:
+ * {@code java -cp target/benchmarks.jar com.ecommerce.benchmarks.HotPathBenchmarks [pattern]}
+ */
+public class HotPathBenchmarks {
+
+    private static final String DEFAULT_PATTERN =
+            "ResponseMappingBenchmark|ResponseJsonBenchmark|ResilienceStackBenchmark|EventSerializationBenchmark";
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : DEFAULT_PATTERN)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-invocation cost of the Resilience4j annotation stack, measured through the real Spring
+ * AOP proxies in a minimal in-process context. Run with {@code -prof gc} (or through
+ * {@link HotPathBenchmarks}) to see the allocations each decorator adds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResilienceStackBenchmark {
+
+    // Whether the service timers from the instrumentation module wrap the stack as well
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private ConfigurableApplicationContext context;
+    private GuardedOperations direct;
+    private GuardedOperations proxied;
+    private final Object payload = new Object();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(StackConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "instrumentation.enabled=" + instrumented,
+                        // Limits far above what one benchmark thread can reach, so no call is rejected
+                        "resilience4j.circuitbreaker.instances.bench.slidingWindowSize=100",
+                        "resilience4j.circuitbreaker.instances.bench.failureRateThreshold=50",
+                        "resilience4j.ratelimiter.instances.bench.limitForPeriod=" + Integer.MAX_VALUE,
+                        "resilience4j.ratelimiter.instances.bench.limitRefreshPeriod=1s",
+                        "resilience4j.ratelimiter.instances.bench.timeoutDuration=0s",
+                        "resilience4j.retry.instances.bench.maxAttempts=3",
+                        "resilience4j.timelimiter.instances.bench.timeoutDuration=2s")
+                .run();
+        direct = new GuardedOperations();
+        proxied = context.getBean(GuardedOperations.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object direct() {
+        return direct.unguarded(payload);
+    }
+
+    @Benchmark
+    public Object proxyOnly() {
+        return proxied.unguarded(payload);
+    }
+
+    @Benchmark
+    public Object circuitBreaker() {
+        return proxied.circuitBreaker(payload);
+    }
+
+    @Benchmark
+    public Object syncStack() {
+        return proxied.syncStack(payload);
+    }
+
+    @Benchmark
+    public Object asyncStack() {
+        return proxied.asyncStack(payload).join();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class, KafkaAutoConfiguration.class})
+    @Import(GuardedOperations.class)
+    static class StackConfiguration {
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentResponse;
+import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the response DTOs as Spring MVC writes them: Jackson with
+ * {@code JavaTimeModule} and ISO dates, the defaults Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter paymentWriter;
+    private ObjectWriter shipmentWriter;
+    private PaymentResponse paymentResponse;
+    private ShipmentResponse shipmentResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        paymentWriter = objectMapper.writerFor(PaymentResponse.class);
+        shipmentWriter = objectMapper.writerFor(ShipmentResponse.class);
+
+        Payment payment = SampleEntities.payment();
+        paymentResponse = new PaymentResponse(payment.getId(), payment.getOrderId(), payment.getAmount(),
+                payment.getPaymentMethod(), payment.getTransactionId(), payment.getPaymentDate(), payment.getStatus(),
+                "Payment retrieved successfully");
+
+        Shipment shipment = SampleEntities.shipment();
+        shipmentResponse = new ShipmentResponse(shipment.getId(), shipment.getOrderId(), shipment.getTrackingNumber(),
+                shipment.getCarrierName(), shipment.getStatus(), shipment.getShippingAddress(), shipment.getCreatedAt(),
+                shipment.getUpdatedAt(), shipment.getShippedAt(), shipment.getDeliveredAt(), shipment.getNotes(),
+                "Shipment retrieved successfully");
+    }
+
+    @Benchmark
+    public byte[] paymentResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] shipmentResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(shipmentResponse);
+    }
+
+    // Pre-resolved writers skip the per-call serializer lookup; the gap shows what that lookup costs
+    @Benchmark
+    public byte[] paymentResponseWriter() throws IOException {
+        return paymentWriter.writeValueAsBytes(paymentResponse);
+    }
+
+    @Benchmark
+    public byte[] shipmentResponseWriter() throws IOException {
+        return shipmentWriter.writeValueAsBytes(shipmentResponse);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentResponse;
+import com.ecommerce.payment.service.PaymentServiceImpl;
+import com.ecommerce.shipping.id.TrackingNumberGenerator;
+import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentResponse;
+import com.ecommerce.shipping.service.ShippingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping, called directly on the service implementations, and tracking number
+ * generation. The services' other collaborators are not used by these helpers and are left null.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    private static final MethodHandle MAP_PAYMENT = SampleEntities.privateMethod(PaymentServiceImpl.class,
+            "mapToPaymentResponse", MethodType.methodType(PaymentResponse.class, Payment.class, String.class));
+    private static final MethodHandle MAP_SHIPMENT = SampleEntities.privateMethod(ShippingServiceImpl.class,
+            "mapToShipmentResponse", MethodType.methodType(ShipmentResponse.class, Shipment.class, String.class));
+
+    private PaymentServiceImpl paymentService;
+    private ShippingServiceImpl shippingService;
+    private TrackingNumberGenerator trackingNumberGenerator;
+    private Payment payment;
+    private Shipment shipment;
+
+    @Setup
+    public void setUp() {
+        paymentService = new PaymentServiceImpl(null, null, null, null, null);
+        trackingNumberGenerator = new TrackingNumberGenerator(1);
+        shippingService = new ShippingServiceImpl(null, null, null, trackingNumberGenerator, null, null, 100, 1000);
+        payment = SampleEntities.payment();
+        shipment = SampleEntities.shipment();
+    }
+
+    @Benchmark
+    public PaymentResponse mapToPaymentResponse() throws Throwable {
+        return (PaymentResponse) MAP_PAYMENT.invokeExact(paymentService, payment, "Payment retrieved successfully");
+    }
+
+    @Benchmark
+    public ShipmentResponse mapToShipmentResponse() throws Throwable {
+        return (ShipmentResponse) MAP_SHIPMENT.invokeExact(shippingService, shipment, "Shipment retrieved successfully");
+    }
+
+    @Benchmark
+    public String generateTrackingNumber() {
+        return trackingNumberGenerator.next();
+    }
+
+    // All threads share one generator, so this measures CAS contention on its state
+    @Benchmark
+    @Threads(4)
+    public String generateTrackingNumberContended() {
+        return trackingNumberGenerator.next();
+    }
+
+    // The previous generator, kept as a baseline
+    @Benchmark
+    public String generateUuidTrackingNumber() {
+        return "TRK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentStatus;
+import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentStatus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Representative entities plus access to the private service helpers under test.
+ */
+final class SampleEntities {
+
+    private static final LocalDateTime CREATED = LocalDateTime.parse("2024-03-01T12:00:00");
+
+    private SampleEntities() {
+    }
+
+    static Payment payment() {
+        Payment payment = new Payment();
+        payment.setId(1_234_567L);
+        payment.setIdempotencyKey("order-7654321-attempt-1");
+        payment.setOrderId(7_654_321L);
+        payment.setAmount(new BigDecimal("129.99"));
+        payment.setPaymentMethod("CREDIT_CARD");
+        payment.setTransactionId("3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+        payment.setPaymentDate(CREATED);
+        payment.setStatus(PaymentStatus.COMPLETED);
+        return payment;
+    }
+
+    static Shipment shipment() {
+        Shipment shipment = new Shipment();
+        shipment.setId(42_424_242L);
+        shipment.setOrderId(7_654_321L);
+        shipment.setTrackingNumber("TRK-01HQ3KZ7W2M4R");
+        shipment.setCarrierName("DHL");
+        shipment.setStatus(ShipmentStatus.IN_TRANSIT);
+        shipment.setShippingAddress("221B Baker Street, London NW1 6XE, United Kingdom");
+        shipment.setCreatedAt(CREATED);
+        shipment.setUpdatedAt(CREATED.plusHours(20));
+        shipment.setShippedAt(CREATED.plusHours(6));
+        shipment.setNotes("Leave at the front desk");
+        return shipment;
+    }
+
+    // A private lookup keeps the services' helpers private; held in a static final the handle is a JIT constant
+    static MethodHandle privateMethod(Class<?> owner, String name, MethodType type) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup()).findVirtual(owner, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.PaymentProcessed;
+import com.ecommerce.events.ShipmentStatusChanged;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Representative events plus the free-text format the services published before the binary schema.
+ */
+final class SampleEvents {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("(\\d+)");
+
+    private SampleEvents() {
+    }
+
+    static DomainEvent of(String type) {
+        switch (type) {
+            case "PAYMENT_PROCESSED":
+                return new PaymentProcessed(1_234_567L, 7_654_321L, new BigDecimal("129.99"), "CREDIT_CARD",
+                        "3f2504e0-4f89-11d3-9a0c-0305e82c3301", Instant.parse("2024-03-01T12:00:00Z"));
+            case "SHIPMENT_STATUS_CHANGED":
+                return new ShipmentStatusChanged(42_424_242L, 7_654_321L, "SHIPPED", "IN_TRANSIT",
+                        Instant.parse("2024-03-01T12:00:00Z"));
+            default:
+                throw new IllegalArgumentException("Unknown sample event: " + type);
+        }
+    }
+
+    static byte[] legacyText(DomainEvent event) {
+        String text;
+        if (event instanceof PaymentProcessed e) {
+            text = "Payment processed: " + e.paymentId();
+        } else if (event instanceof ShipmentStatusChanged e) {
+            text = "Shipment status updated: " + e.shipmentId() + ", Status: " + e.status();
+        } else {
+            throw new IllegalArgumentException("No legacy format for " + event.type());
+        }
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // What consumers of the old format had to do: regex the id back out of the sentence
+    static long parseLegacyText(byte[] data) {
+        Matcher matcher = ID_PATTERN.matcher(new String(data, StandardCharsets.UTF_8));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
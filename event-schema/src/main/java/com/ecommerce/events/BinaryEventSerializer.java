@@ -0,0 +1,11 @@
+package com.ecommerce.events;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+public class BinaryEventSerializer implements Serializer<DomainEvent> {
+
+    @Override
+    public byte[] serialize(String topic, DomainEvent event) {
+        return event == null ? null : EventCodec.encode(event);
+    }
+}
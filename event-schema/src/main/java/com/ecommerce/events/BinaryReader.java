@@ -0,0 +1,99 @@
+package com.ecommerce.events;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+final class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    byte readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift > 63) {
+                throw new IllegalArgumentException("Malformed varint at offset " + position);
+            }
+            require(1);
+            b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    long readZigZagLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    Long readNullableLong() {
+        return readByte() == 0 ? null : readZigZagLong();
+    }
+
+    String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    BigDecimal readDecimal() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        BigInteger unscaled = new BigInteger(Arrays.copyOfRange(buffer, position, position + length));
+        position += length;
+        return new BigDecimal(unscaled, (int) readZigZagLong());
+    }
+
+    Instant readInstant() {
+        long millis = readZigZagLong();
+        return millis == Long.MIN_VALUE ? null : Instant.ofEpochMilli(millis);
+    }
+
+    // Element count of a list: each element takes at least minElementBytes, so a count the
+    // remaining payload cannot hold is rejected before anything is allocated for it
+    int readCount(int minElementBytes) {
+        long count = readVarLong();
+        if (count < 0 || count > (buffer.length - position) / minElementBytes) {
+            throw new IllegalArgumentException("Element count " + count + " out of bounds at offset " + position);
+        }
+        return (int) count;
+    }
+
+    // Length prefix of a nullable field: -1 for null, otherwise a byte count that must fit in the buffer
+    private int readLength() {
+        long length = readVarLong() - 1;
+        if (length < -1 || length > buffer.length - position) {
+            throw new IllegalArgumentException("Field length " + length + " out of bounds at offset " + position);
+        }
+        return (int) length;
+    }
+
+    // A truncated or corrupt payload fails as a malformed event rather than an index error
+    private void require(int bytes) {
+        if (position > buffer.length - bytes) {
+            throw new IllegalArgumentException("Event payload truncated at offset " + position);
+        }
+    }
+}
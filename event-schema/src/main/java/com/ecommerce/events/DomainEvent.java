@@ -0,0 +1,16 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+
+/**
+ * An event published on the payment-events or shipping-events topics.
+ * Encoded on the wire by {@link EventCodec}.
+ */
+public sealed interface DomainEvent
+        permits PaymentProcessed, PaymentBatchProcessed, PaymentRefunded,
+                ShipmentCreated, ShipmentStatusChanged, ShipmentStatusBatchChanged, ShipmentCancelled {
+
+    EventType type();
+
+    Instant occurredAt();
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding for {@link DomainEvent}s. See {@link EventSchema} for the header layout.
+ */
+public final class EventCodec {
+
+    // Smallest encodings of the list elements: one byte per field when ids are small and the rest null
+    private static final int MIN_PAYMENT_PROCESSED_BYTES = 6;
+    private static final int MIN_SHIPMENT_STATUS_CHANGED_BYTES = 5;
+
+    private EventCodec() {
+    }
+
+    public static byte[] encode(DomainEvent event) {
+        BinaryWriter writer = new BinaryWriter(64);
+        writer.writeByte(EventSchema.MAGIC);
+        writer.writeByte(EventSchema.CURRENT_VERSION);
+        writer.writeByte(event.type().code());
+        writeBody(writer, event);
+        return writer.toByteArray();
+    }
+
+    public static DomainEvent decode(byte[] data) {
+        if (data == null || data.length < EventSchema.HEADER_SIZE || data[0] != EventSchema.MAGIC) {
+            throw new IllegalArgumentException("Not an encoded domain event");
+        }
+        byte version = data[1];
+        if (version < 1 || version > EventSchema.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Unsupported event schema version: " + version);
+        }
+        BinaryReader reader = new BinaryReader(data, EventSchema.HEADER_SIZE);
+        return readBody(reader, EventType.fromCode(data[2]));
+    }
+
+    private static void writeBody(BinaryWriter writer, DomainEvent event) {
+        if (event instanceof PaymentProcessed e) {
+            writePaymentProcessed(writer, e);
+        } else if (event instanceof PaymentBatchProcessed e) {
+            writer.writeVarLong(e.payments().size());
+            for (PaymentProcessed payment : e.payments()) {
+                writePaymentProcessed(writer, payment);
+            }
+            writer.writeInstant(e.occurredAt());
+        } else if (event instanceof PaymentRefunded e) {
+            writer.writeVarLong(e.paymentId());
+            writer.writeNullableLong(e.orderId());
+            writer.writeDecimal(e.amount());
+            writer.writeInstant(e.occurredAt());
+        } else if (event instanceof ShipmentCreated e) {
+            writer.writeVarLong(e.shipmentId());
+            writer.writeNullableLong(e.orderId());
+            writer.writeString(e.trackingNumber());
+            writer.writeString(e.carrierName());
+            writer.writeInstant(e.occurredAt());
+        } else if (event instanceof ShipmentStatusChanged e) {
+            writeShipmentStatusChanged(writer, e);
+        } else if (event instanceof ShipmentStatusBatchChanged e) {
+            writer.writeVarLong(e.changes().size());
+            for (ShipmentStatusChanged change : e.changes()) {
+                writeShipmentStatusChanged(writer, change);
+            }
+            writer.writeInstant(e.occurredAt());
+        } else if (event instanceof ShipmentCancelled e) {
+            writer.writeVarLong(e.shipmentId());
+            writer.writeNullableLong(e.orderId());
+            writer.writeInstant(e.occurredAt());
+        } else {
+            throw new IllegalArgumentException("Unsupported event: " + event.getClass().getName());
+        }
+    }
+
+    private static DomainEvent readBody(BinaryReader reader, EventType type) {
+        switch (type) {
+            case PAYMENT_PROCESSED:
+                return readPaymentProcessed(reader);
+            case PAYMENT_BATCH_PROCESSED: {
+                int size = reader.readCount(MIN_PAYMENT_PROCESSED_BYTES);
+                List<PaymentProcessed> payments = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    payments.add(readPaymentProcessed(reader));
+                }
+                return new PaymentBatchProcessed(payments, reader.readInstant());
+            }
+            case PAYMENT_REFUNDED:
+                return new PaymentRefunded(reader.readVarLong(), reader.readNullableLong(),
+                        reader.readDecimal(), reader.readInstant());
+            case SHIPMENT_CREATED:
+                return new ShipmentCreated(reader.readVarLong(), reader.readNullableLong(),
+                        reader.readString(), reader.readString(), reader.readInstant());
+            case SHIPMENT_STATUS_CHANGED:
+                return readShipmentStatusChanged(reader);
+            case SHIPMENT_STATUS_BATCH_CHANGED: {
+                int size = reader.readCount(MIN_SHIPMENT_STATUS_CHANGED_BYTES);
+                List<ShipmentStatusChanged> changes = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    changes.add(readShipmentStatusChanged(reader));
+                }
+                return new ShipmentStatusBatchChanged(changes, reader.readInstant());
+            }
+            case SHIPMENT_CANCELLED:
+                return new ShipmentCancelled(reader.readVarLong(), reader.readNullableLong(), reader.readInstant());
+            default:
+                throw new IllegalArgumentException("Unsupported event type: " + type);
+        }
+    }
+
+    private static void writePaymentProcessed(BinaryWriter writer, PaymentProcessed e) {
+        writer.writeVarLong(e.paymentId());
+        writer.writeNullableLong(e.orderId());
+        writer.writeDecimal(e.amount());
+        writer.writeString(e.paymentMethod());
+        writer.writeString(e.transactionId());
+        writer.writeInstant(e.occurredAt());
+    }
+
+    private static PaymentProcessed readPaymentProcessed(BinaryReader reader) {
+        return new PaymentProcessed(reader.readVarLong(), reader.readNullableLong(), reader.readDecimal(),
+                reader.readString(), reader.readString(), reader.readInstant());
+    }
+
+    private static void writeShipmentStatusChanged(BinaryWriter writer, ShipmentStatusChanged e) {
+        writer.writeVarLong(e.shipmentId());
+        writer.writeNullableLong(e.orderId());
+        writer.writeString(e.previousStatus());
+        writer.writeString(e.status());
+        writer.writeInstant(e.occurredAt());
+    }
+
+    private static ShipmentStatusChanged readShipmentStatusChanged(BinaryReader reader) {
+        return new ShipmentStatusChanged(reader.readVarLong(), reader.readNullableLong(),
+                reader.readString(), reader.readString(), reader.readInstant());
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.events;
+
+/**
+ * Header layout shared by every encoded event:
+ * <pre>
+ * byte 0   magic (0xEC)
+ * byte 1   schema version
+ * byte 2   {@link EventType} code
+ * byte 3.. fields in declaration order
+ * </pre>
+ * A new version may only append fields and readers reject versions newer than they know,
+ * so consumers are upgraded before producers start writing it.
+ */
+public final class EventSchema {
+
+    public static final byte MAGIC = (byte) 0xEC;
+    public static final byte CURRENT_VERSION = 1;
+    public static final int HEADER_SIZE = 3;
+
+    private EventSchema() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.events;
+
+/**
+ * Wire codes for each event type. Codes are part of the schema and must never be reused.
+ */
+public enum EventType {
+    PAYMENT_PROCESSED(1),
+    PAYMENT_REFUNDED(2),
+    PAYMENT_BATCH_PROCESSED(3),
+    SHIPMENT_CREATED(16),
+    SHIPMENT_STATUS_CHANGED(17),
+    SHIPMENT_CANCELLED(18),
+    SHIPMENT_STATUS_BATCH_CHANGED(19);
+
+    private final byte code;
+
+    EventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static EventType fromCode(byte code) {
+        for (EventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type code: " + code);
+    }
+}
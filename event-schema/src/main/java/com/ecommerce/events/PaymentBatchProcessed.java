@@ -0,0 +1,15 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One record carrying every payment completed by a single batch submission.
+ */
+public record PaymentBatchProcessed(List<PaymentProcessed> payments, Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.PAYMENT_BATCH_PROCESSED;
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.events;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record PaymentProcessed(long paymentId, Long orderId, BigDecimal amount, String paymentMethod,
+                               String transactionId, Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.PAYMENT_PROCESSED;
+    }
+}
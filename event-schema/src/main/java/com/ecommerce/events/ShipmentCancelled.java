@@ -0,0 +1,11 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+
+public record ShipmentCancelled(long shipmentId, Long orderId, Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.SHIPMENT_CANCELLED;
+    }
+}
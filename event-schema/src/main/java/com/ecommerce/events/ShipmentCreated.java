@@ -0,0 +1,12 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+
+public record ShipmentCreated(long shipmentId, Long orderId, String trackingNumber, String carrierName,
+                              Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.SHIPMENT_CREATED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One record carrying every status change applied by a single bulk update.
+ */
+public record ShipmentStatusBatchChanged(List<ShipmentStatusChanged> changes, Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.SHIPMENT_STATUS_BATCH_CHANGED;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.events;
+
+import java.time.Instant;
+
+public record ShipmentStatusChanged(long shipmentId, Long orderId, String previousStatus, String status,
+                                    Instant occurredAt) implements DomainEvent {
+
+    @Override
+    public EventType type() {
+        return EventType.SHIPMENT_STATUS_CHANGED;
+    }
+}
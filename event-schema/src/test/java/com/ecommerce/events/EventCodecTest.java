@@ -0,0 +1,87 @@
+package com.ecommerce.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecTest {
+
+    private static final Instant NOW = Instant.ofEpochMilli(1_700_000_000_123L);
+
+    @Test
+    void everyEventTypeRoundTrips() {
+        PaymentProcessed payment = new PaymentProcessed(7L, 42L, new BigDecimal("19.99"), "CREDIT_CARD", "tx-1", NOW);
+        ShipmentStatusChanged change = new ShipmentStatusChanged(5L, 42L, "CREATED", "SHIPPED", NOW);
+        List<DomainEvent> events = List.of(
+                payment,
+                new PaymentBatchProcessed(List.of(payment, new PaymentProcessed(8L, null, null, null, null, null)), NOW),
+                new PaymentRefunded(7L, 42L, new BigDecimal("-0.50"), NOW),
+                new ShipmentCreated(5L, 42L, "TRK-é", "DHL", NOW),
+                change,
+                new ShipmentStatusBatchChanged(List.of(change), NOW),
+                new ShipmentCancelled(5L, null, NOW));
+
+        for (DomainEvent event : events) {
+            assertThat(EventCodec.decode(EventCodec.encode(event))).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void rejectsPayloadsThatAreNotEvents() {
+        assertThatThrownBy(() -> EventCodec.decode(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCodec.decode(new byte[] {EventSchema.MAGIC, 1}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCodec.decode(new byte[] {0x7B, 1, 1, 0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EventCodec.decode(new byte[] {EventSchema.MAGIC, 2, 1, 0}))
+                .hasMessageContaining("version");
+        assertThatThrownBy(() -> EventCodec.decode(new byte[] {EventSchema.MAGIC, 1, 99, 0}))
+                .hasMessageContaining("type code");
+    }
+
+    @Test
+    void rejectsTruncatedPayloads() {
+        byte[] encoded = EventCodec.encode(new ShipmentCreated(5L, 42L, "TRK-1", "DHL", NOW));
+
+        for (int length = EventSchema.HEADER_SIZE; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThatThrownBy(() -> EventCodec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void rejectsListCountsThePayloadCannotHold() {
+        // Count 0xFFFFFFFF would have been cast to -1; 2^31 to a negative capacity
+        byte[][] counts = {
+                {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+                {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08},
+                {0x7F},
+        };
+        for (EventType type : List.of(EventType.PAYMENT_BATCH_PROCESSED, EventType.SHIPMENT_STATUS_BATCH_CHANGED)) {
+            for (byte[] count : counts) {
+                byte[] payload = new byte[EventSchema.HEADER_SIZE + count.length];
+                payload[0] = EventSchema.MAGIC;
+                payload[1] = EventSchema.CURRENT_VERSION;
+                payload[2] = type.code();
+                System.arraycopy(count, 0, payload, EventSchema.HEADER_SIZE, count.length);
+
+                assertThatThrownBy(() -> EventCodec.decode(payload)).hasMessageContaining("Element count");
+            }
+        }
+    }
+
+    @Test
+    void rejectsOversizedFieldLengths() {
+        // Tracking number claiming ~64KB in an 8 byte payload
+        byte[] payload = {EventSchema.MAGIC, EventSchema.CURRENT_VERSION, EventType.SHIPMENT_CREATED.code(),
+                5, 0, (byte) 0xFF, (byte) 0xFF, 0x03};
+
+        assertThatThrownBy(() -> EventCodec.decode(payload)).hasMessageContaining("Field length");
+    }
+}
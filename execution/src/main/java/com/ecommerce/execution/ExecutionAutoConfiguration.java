@@ -0,0 +1,38 @@
+package com.ecommerce.execution;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Request handling, @Async work and Kafka listener containers switch to virtual
+ * threads when spring.threads.virtual.enabled=true (requires a Java 21 runtime).
+ * The data source is always wrapped in a concurrency guard sized to the pool.
+ */
+@AutoConfiguration
+@EnableAsync
+@EnableScheduling
+public class ExecutionAutoConfiguration {
+
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyGuard(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)
+                        && environment.getProperty("db.concurrency.enabled", Boolean.class, true)) {
+                    int maxPermits = environment.getProperty("db.concurrency.max-permits", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    long acquireTimeoutMs = environment.getProperty("db.concurrency.acquire-timeout-ms", Long.class, 2000L);
+                    return new ConcurrencyLimitedDataSource(dataSource, maxPermits, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.execution;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    private final DataSource target = mock(DataSource.class);
+    private final ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 10);
+
+    @Test
+    void closingTheConnectionReleasesItsPermitOnce() throws Exception {
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+
+        Connection connection = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        verify(raw, times(2)).close();
+    }
+
+    @Test
+    void objectMethodsUseTheProxyIdentity() throws Exception {
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        Connection connection = dataSource.getConnection();
+
+        assertThat(connection).isEqualTo(connection);
+        assertThat(connection.equals(null)).isFalse();
+        assertThat(connection.hashCode()).isEqualTo(System.identityHashCode(connection));
+        assertThat(connection.toString()).startsWith("ConcurrencyLimited[");
+    }
+
+    @Test
+    void unwrappingToConnectionKeepsThePermitGuard() throws Exception {
+        Connection raw = mock(Connection.class);
+        when(target.getConnection()).thenReturn(raw);
+        when(raw.unwrap(String.class)).thenReturn("driver");
+        when(raw.isWrapperFor(String.class)).thenReturn(true);
+        Connection connection = dataSource.getConnection();
+
+        assertThat(connection.unwrap(Connection.class)).isSameAs(connection);
+        assertThat(connection.isWrapperFor(Connection.class)).isTrue();
+        assertThat(connection.unwrap(String.class)).isEqualTo("driver");
+        assertThat(connection.isWrapperFor(String.class)).isTrue();
+
+        connection.unwrap(Connection.class).close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.instrumentation;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs directly around the service method body, inside the resilience decorators, and
+ * notes whether an attempt succeeded. Fallback methods are invoked reflectively by the
+ * circuit breaker aspect and never pass through here.
+ */
+@Aspect
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AttemptTrackingAspect {
+
+    @Around("execution(public * *(..)) && within(@org.springframework.stereotype.Service *)")
+    public Object track(ProceedingJoinPoint joinPoint) throws Throwable {
+        InvocationContext context = InvocationContext.current();
+        Object result = joinPoint.proceed();
+        if (context == null) {
+            return result;
+        }
+        if (result instanceof CompletableFuture<?> future) {
+            // Decorators chain on the returned stage, so the mark is set before they observe completion
+            CompletableFuture<?> tracked = future.whenComplete((value, failure) -> {
+                if (failure == null) {
+                    context.markAttemptSucceeded();
+                }
+            });
+            tracked.whenComplete((value, failure) -> {
+                if (failure instanceof CancellationException) {
+                    future.cancel(true);
+                }
+            });
+            return tracked;
+        }
+        context.markAttemptSucceeded();
+        return result;
+    }
+}
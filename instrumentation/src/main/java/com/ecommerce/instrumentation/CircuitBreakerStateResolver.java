@@ -0,0 +1,19 @@
+package com.ecommerce.instrumentation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reports the state of the circuit breaker guarding a method, as used for the
+ * {@code cb_state} tag. The method is the one declared on {@code targetClass}, not the
+ * interface. Services without Resilience4j always report {@code none}.
+ */
+public interface CircuitBreakerStateResolver {
+
+    String NONE = "none";
+
+    String stateOf(Method method, Class<?> targetClass);
+
+    static CircuitBreakerStateResolver none() {
+        return (method, targetClass) -> NONE;
+    }
+}
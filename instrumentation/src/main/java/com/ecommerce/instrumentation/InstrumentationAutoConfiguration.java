@@ -0,0 +1,106 @@
+package com.ecommerce.instrumentation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.Set;
+
+/**
+ * Registers latency timers for service methods, repository calls and Kafka publishes.
+ * Each hot path is only instrumented when the service has the matching library.
+ */
+@AutoConfiguration(after = {MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class})
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "instrumentation", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(InstrumentationProperties.class)
+public class InstrumentationAutoConfiguration {
+
+    private static final Set<String> HOT_PATH_TIMERS = Set.of(
+            MethodTimers.SERVICE_TIMER, MethodTimers.REPOSITORY_TIMER, KafkaPublishTimingAspect.PUBLISH_TIMER);
+
+    @Bean
+    public MeterFilter hotPathTimerDistribution(InstrumentationProperties properties) {
+        DistributionStatisticConfig distribution = DistributionStatisticConfig.builder()
+                .percentiles(properties.getPercentiles())
+                .percentilesHistogram(properties.isPercentileHistogram())
+                .minimumExpectedValue((double) properties.getMinimumExpectedValue().toNanos())
+                .maximumExpectedValue((double) properties.getMaximumExpectedValue().toNanos())
+                .expiry(properties.getExpiry())
+                .bufferLength(properties.getBufferLength())
+                .build();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return HOT_PATH_TIMERS.contains(id.getName()) ? distribution.merge(config) : config;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CircuitBreakerStateResolver circuitBreakerStateResolver() {
+        return CircuitBreakerStateResolver.none();
+    }
+
+    @Bean
+    public MethodTimers methodTimers(MeterRegistry registry, CircuitBreakerStateResolver circuitBreakerStateResolver) {
+        return new MethodTimers(registry, circuitBreakerStateResolver);
+    }
+
+    @Bean
+    public ServiceTimingAspect serviceTimingAspect(MethodTimers methodTimers) {
+        return new ServiceTimingAspect(methodTimers);
+    }
+
+    @Bean
+    public AttemptTrackingAspect attemptTrackingAspect() {
+        return new AttemptTrackingAspect();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Repository.class)
+    static class RepositoryInstrumentation {
+
+        @Bean
+        public RepositoryTimingAspect repositoryTimingAspect(MethodTimers methodTimers) {
+            return new RepositoryTimingAspect(methodTimers);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(KafkaTemplate.class)
+    static class KafkaInstrumentation {
+
+        @Bean
+        public KafkaPublishTimingAspect kafkaPublishTimingAspect(MeterRegistry registry) {
+            return new KafkaPublishTimingAspect(registry);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(CircuitBreakerRegistry.class)
+    static class CircuitBreakerInstrumentation {
+
+        @Bean
+        public CircuitBreakerStateResolver resilience4jCircuitBreakerStateResolver(ObjectProvider<CircuitBreakerRegistry> registry) {
+            return new Resilience4jCircuitBreakerStateResolver(registry);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Distribution settings shared by every hot-path timer. Percentiles are computed client side
+ * from a rolling HdrHistogram window; the histogram buckets let Prometheus aggregate across
+ * instances with {@code histogram_quantile}.
+ */
+@ConfigurationProperties(prefix = "instrumentation")
+public class InstrumentationProperties {
+
+    private boolean enabled = true;
+    private double[] percentiles = {0.5, 0.95, 0.99, 0.999};
+    private boolean percentileHistogram = true;
+    private Duration minimumExpectedValue = Duration.ofMillis(1);
+    private Duration maximumExpectedValue = Duration.ofSeconds(10);
+    // Rolling window the client-side percentiles cover
+    private Duration expiry = Duration.ofMinutes(1);
+    private int bufferLength = 3;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    public void setPercentileHistogram(boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    public Duration getMinimumExpectedValue() {
+        return minimumExpectedValue;
+    }
+
+    public void setMinimumExpectedValue(Duration minimumExpectedValue) {
+        this.minimumExpectedValue = minimumExpectedValue;
+    }
+
+    public Duration getMaximumExpectedValue() {
+        return maximumExpectedValue;
+    }
+
+    public void setMaximumExpectedValue(Duration maximumExpectedValue) {
+        this.maximumExpectedValue = maximumExpectedValue;
+    }
+
+    public Duration getExpiry() {
+        return expiry;
+    }
+
+    public void setExpiry(Duration expiry) {
+        this.expiry = expiry;
+    }
+
+    public int getBufferLength() {
+        return bufferLength;
+    }
+
+    public void setBufferLength(int bufferLength) {
+        this.bufferLength = bufferLength;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.instrumentation;
+
+/**
+ * Per-call state shared between the outer timing aspect and the attempt tracker that runs
+ * inside the resilience decorators. Only the first attempt runs on the caller's thread, so
+ * attempts retried asynchronously on a scheduler are not seen here.
+ */
+final class InvocationContext {
+
+    private static final ThreadLocal<InvocationContext> CURRENT = new ThreadLocal<>();
+
+    private final InvocationContext previous;
+    private volatile boolean attemptSucceeded;
+
+    private InvocationContext(InvocationContext previous) {
+        this.previous = previous;
+    }
+
+    static InvocationContext open() {
+        InvocationContext context = new InvocationContext(CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    static InvocationContext current() {
+        return CURRENT.get();
+    }
+
+    void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    void markAttemptSucceeded() {
+        attemptSucceeded = true;
+    }
+
+    InvocationOutcome outcome(Throwable failure) {
+        if (failure != null) {
+            return InvocationOutcome.ERROR;
+        }
+        return attemptSucceeded ? InvocationOutcome.SUCCESS : InvocationOutcome.FALLBACK;
+    }
+}
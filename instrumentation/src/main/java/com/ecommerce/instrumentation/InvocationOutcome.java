@@ -0,0 +1,21 @@
+package com.ecommerce.instrumentation;
+
+/**
+ * Values of the {@code outcome} tag. A call that returned normally although none of its
+ * attempts reached the method body successfully was answered by a fallback.
+ */
+public enum InvocationOutcome {
+    SUCCESS("success"),
+    FALLBACK("fallback"),
+    ERROR("error");
+
+    private final String tagValue;
+
+    InvocationOutcome(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times {@link KafkaTemplate#send} calls until the broker acknowledges the record, so the
+ * timer covers batching delay in the producer as well as the round trip.
+ */
+@Aspect
+public class KafkaPublishTimingAspect {
+
+    public static final String PUBLISH_TIMER = "kafka.publish";
+
+    private final MeterRegistry registry;
+    // Keyed by topic and outcome
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public KafkaPublishTimingAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * org.springframework.kafka.core.KafkaTemplate.send(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String topic = topicOf(joinPoint);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            record(topic, InvocationOutcome.ERROR, start);
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((sendResult, failure) ->
+                    record(topic, failure == null ? InvocationOutcome.SUCCESS : InvocationOutcome.ERROR, start));
+        } else {
+            record(topic, InvocationOutcome.SUCCESS, start);
+        }
+        return result;
+    }
+
+    private void record(String topic, InvocationOutcome outcome, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        timers.computeIfAbsent(topic + '|' + outcome.tagValue(), key -> Timer.builder(PUBLISH_TIMER)
+                .tag("topic", topic)
+                .tag("outcome", outcome.tagValue())
+                .register(registry))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+    }
+
+    private static String topicOf(ProceedingJoinPoint joinPoint) {
+        Object first = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+        if (first instanceof String topic) {
+            return topic;
+        }
+        if (first instanceof ProducerRecord<?, ?> record) {
+            return record.topic();
+        }
+        if (first instanceof Message<?> message && message.getHeaders().get(KafkaHeaders.TOPIC) instanceof String topic) {
+            return topic;
+        }
+        String defaultTopic = ((KafkaTemplate<?, ?>) joinPoint.getTarget()).getDefaultTopic();
+        return defaultTopic != null ? defaultTopic : "unknown";
+    }
+}
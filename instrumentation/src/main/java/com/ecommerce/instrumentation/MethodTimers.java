@@ -0,0 +1,127 @@
+package com.ecommerce.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Times intercepted calls under one timer per method and outcome. Calls returning a
+ * {@link CompletionStage} are recorded when the stage completes, so asynchronous service
+ * methods report their real latency rather than the time taken to hand off the work.
+ */
+public class MethodTimers {
+
+    public static final String SERVICE_TIMER = "service.method";
+    public static final String REPOSITORY_TIMER = "repository.call";
+
+    private final MeterRegistry registry;
+    private final CircuitBreakerStateResolver circuitBreakerStates;
+    private final Map<MethodKey, TimedMethod> methods = new ConcurrentHashMap<>();
+
+    public MethodTimers(MeterRegistry registry, CircuitBreakerStateResolver circuitBreakerStates) {
+        this.registry = registry;
+        this.circuitBreakerStates = circuitBreakerStates;
+    }
+
+    /**
+     * Times a service call, tagged with the state its circuit breaker was in when the call
+     * started. Attempts are tracked so that a normal return produced by a fallback is tagged
+     * {@code fallback} rather than {@code success}.
+     */
+    Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        TimedMethod method = timedMethod(SERVICE_TIMER, joinPoint, targetClass,
+                specific -> Tags.of("class", targetClass.getSimpleName(), "method", specific.getName()));
+        String cbState = circuitBreakerStates.stateOf(method.specificMethod, targetClass);
+        InvocationContext context = InvocationContext.open();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            method.record(InvocationOutcome.ERROR, cbState, start);
+            throw e;
+        } finally {
+            context.close();
+        }
+        return recordOnCompletion(result, failure -> method.record(context.outcome(failure), cbState, start));
+    }
+
+    /**
+     * Times a repository call. {@code repositoryName} maps the repository proxy class to the
+     * application interface it implements.
+     */
+    Object timeRepository(ProceedingJoinPoint joinPoint, Function<Class<?>, String> repositoryName) throws Throwable {
+        Class<?> proxyClass = joinPoint.getThis().getClass();
+        TimedMethod method = timedMethod(REPOSITORY_TIMER, joinPoint, proxyClass,
+                specific -> Tags.of("repository", repositoryName.apply(proxyClass), "method", specific.getName()));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            method.record(InvocationOutcome.ERROR, null, start);
+            throw e;
+        }
+        return recordOnCompletion(result, failure -> method.record(
+                failure == null ? InvocationOutcome.SUCCESS : InvocationOutcome.ERROR, null, start));
+    }
+
+    private static Object recordOnCompletion(Object result, Consumer<Throwable> recorder) {
+        if (result instanceof CompletionStage<?> stage) {
+            // The caller keeps the original stage, so cancellation still reaches the producer
+            stage.whenComplete((value, failure) -> recorder.accept(failure));
+        } else {
+            recorder.accept(null);
+        }
+        return result;
+    }
+
+    private TimedMethod timedMethod(String timerName, ProceedingJoinPoint joinPoint, Class<?> targetClass,
+                                    Function<Method, Tags> baseTags) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return methods.computeIfAbsent(new MethodKey(timerName, method, targetClass), key -> {
+            Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+            return new TimedMethod(timerName, specific, baseTags.apply(specific));
+        });
+    }
+
+    private record MethodKey(String timerName, Method method, Class<?> targetClass) {
+    }
+
+    private final class TimedMethod {
+        private final String timerName;
+        private final Method specificMethod;
+        private final Tags baseTags;
+        // Keyed by outcome and circuit breaker state
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        private TimedMethod(String timerName, Method specificMethod, Tags baseTags) {
+            this.timerName = timerName;
+            this.specificMethod = specificMethod;
+            this.baseTags = baseTags;
+        }
+
+        void record(InvocationOutcome outcome, String cbState, long startNanos) {
+            long elapsed = System.nanoTime() - startNanos;
+            timers.computeIfAbsent(cbState == null ? outcome.tagValue() : outcome.tagValue() + '|' + cbState, key -> {
+                Tags tags = baseTags.and("outcome", outcome.tagValue());
+                if (cbState != null) {
+                    tags = tags.and("cb_state", cbState);
+                }
+                return Timer.builder(timerName).tags(tags).register(registry);
+            }).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+}
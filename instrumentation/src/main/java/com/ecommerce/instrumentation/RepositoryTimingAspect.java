@@ -0,0 +1,34 @@
+package com.ecommerce.instrumentation;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+
+/**
+ * Times every call made through a Spring Data repository proxy.
+ */
+@Aspect
+public class RepositoryTimingAspect {
+
+    private final MethodTimers timers;
+
+    public RepositoryTimingAspect(MethodTimers timers) {
+        this.timers = timers;
+    }
+
+    @Around("execution(public * *(..)) && this(org.springframework.data.repository.Repository)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timers.timeRepository(joinPoint, RepositoryTimingAspect::repositoryName);
+    }
+
+    // Repository beans are JDK proxies; name the application's interface, not the proxy
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> candidate : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework.")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.instrumentation;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Looks up the breaker named by a method- or class-level {@link CircuitBreaker} annotation
+ * and reports its current state in lower case (closed, open, half_open, ...).
+ */
+class Resilience4jCircuitBreakerStateResolver implements CircuitBreakerStateResolver {
+
+    private final ObjectProvider<CircuitBreakerRegistry> registryProvider;
+    private volatile CircuitBreakerRegistry registry;
+    // Breaker name per method; empty when the method is not guarded
+    private final Map<Method, Optional<String>> breakerNames = new ConcurrentHashMap<>();
+
+    Resilience4jCircuitBreakerStateResolver(ObjectProvider<CircuitBreakerRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public String stateOf(Method method, Class<?> targetClass) {
+        Optional<String> name = breakerNames.computeIfAbsent(method, m -> breakerName(m, targetClass));
+        CircuitBreakerRegistry breakers = registry();
+        if (name.isEmpty() || breakers == null) {
+            return NONE;
+        }
+        return breakers.find(name.get())
+                .map(breaker -> breaker.getState().name().toLowerCase(Locale.ROOT))
+                .orElse(NONE);
+    }
+
+    // Resolved on first use so this bean does not depend on auto-configuration ordering
+    private CircuitBreakerRegistry registry() {
+        CircuitBreakerRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+
+    private static Optional<String> breakerName(Method method, Class<?> targetClass) {
+        CircuitBreaker annotation = AnnotatedElementUtils.findMergedAnnotation(method, CircuitBreaker.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, CircuitBreaker.class);
+        }
+        return annotation == null ? Optional.empty() : Optional.of(annotation.name());
+    }
+}
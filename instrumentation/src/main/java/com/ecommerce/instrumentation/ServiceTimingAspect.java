@@ -0,0 +1,30 @@
+package com.ecommerce.instrumentation;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Times every public method of a {@code @Service} bean. Ordered outside Resilience4j's
+ * Retry aspect ({@code LOWEST_PRECEDENCE - 4}), so retries, open-circuit rejections and
+ * fallbacks are all part of the recorded latency.
+ */
+@Aspect
+@Order(ServiceTimingAspect.ORDER)
+public class ServiceTimingAspect {
+
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    private final MethodTimers timers;
+
+    public ServiceTimingAspect(MethodTimers timers) {
+        this.timers = timers;
+    }
+
+    @Around("execution(public * *(..)) && within(@org.springframework.stereotype.Service *)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        return timers.timeService(joinPoint);
+    }
+}
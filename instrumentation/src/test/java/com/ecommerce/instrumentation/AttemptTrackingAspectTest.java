@@ -0,0 +1,150 @@
+package com.ecommerce.instrumentation;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Calls a service through the real Resilience4j Retry and CircuitBreaker aspects and checks
+ * the {@code outcome} tag of the recorded {@code service.method} timer.
+ */
+@SpringBootTest(classes = AttemptTrackingAspectTest.TestApplication.class, properties = {
+        "resilience4j.retry.instances.outcomes.max-attempts=3",
+        "resilience4j.retry.instances.outcomes.wait-duration=1ms"
+})
+class AttemptTrackingAspectTest {
+
+    @Autowired
+    private OutcomeService service;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void tagsAPlainReturnAsSuccess() {
+        assertThat(service.succeed()).isEqualTo("ok");
+
+        assertThat(count("succeed", InvocationOutcome.SUCCESS)).isEqualTo(1);
+        assertThat(count("succeed", InvocationOutcome.FALLBACK)).isZero();
+    }
+
+    @Test
+    void tagsASuccessfulRetryAsSuccess() {
+        assertThat(service.succeedOnSecondAttempt()).isEqualTo("ok");
+
+        assertThat(service.attempts()).isEqualTo(2);
+        assertThat(count("succeedOnSecondAttempt", InvocationOutcome.SUCCESS)).isEqualTo(1);
+        assertThat(count("succeedOnSecondAttempt", InvocationOutcome.FALLBACK)).isZero();
+    }
+
+    @Test
+    void tagsARetryFallbackAsFallback() {
+        assertThat(service.fallBackAfterRetries()).isEqualTo("fallback");
+
+        assertThat(count("fallBackAfterRetries", InvocationOutcome.FALLBACK)).isEqualTo(1);
+        assertThat(count("fallBackAfterRetries", InvocationOutcome.SUCCESS)).isZero();
+    }
+
+    @Test
+    void tagsACircuitBreakerFallbackOnAFailedFutureAsFallback() {
+        assertThat(service.fallBackAsync().join()).isEqualTo("fallback");
+
+        assertThat(count("fallBackAsync", InvocationOutcome.FALLBACK)).isEqualTo(1);
+    }
+
+    @Test
+    void tagsAnUnhandledFailureAsError() {
+        assertThatThrownBy(service::fail).isInstanceOf(IllegalStateException.class);
+
+        assertThat(count("fail", InvocationOutcome.ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    void restoresTheEnclosingContextWhenANestedCallCloses() {
+        InvocationContext outer = InvocationContext.open();
+        try {
+            InvocationContext inner = InvocationContext.open();
+            inner.markAttemptSucceeded();
+            inner.close();
+
+            assertThat(InvocationContext.current()).isSameAs(outer);
+            // The nested call's success says nothing about the enclosing one
+            assertThat(outer.outcome(null)).isEqualTo(InvocationOutcome.FALLBACK);
+        } finally {
+            outer.close();
+        }
+        assertThat(InvocationContext.current()).isNull();
+    }
+
+    private long count(String method, InvocationOutcome outcome) {
+        var timer = registry.find(MethodTimers.SERVICE_TIMER)
+                .tags("class", OutcomeService.class.getSimpleName(), "method", method, "outcome", outcome.tagValue())
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import(OutcomeService.class)
+    static class TestApplication {
+    }
+
+    @Service
+    static class OutcomeService {
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        // Read through a method: the test holds the CGLIB proxy, whose own fields are never initialised
+        public int attempts() {
+            return attempts.get();
+        }
+
+        public String succeed() {
+            return "ok";
+        }
+
+        @Retry(name = "outcomes")
+        public String succeedOnSecondAttempt() {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt fails");
+            }
+            return "ok";
+        }
+
+        @Retry(name = "outcomes", fallbackMethod = "fallback")
+        public String fallBackAfterRetries() {
+            throw new IllegalStateException("always fails");
+        }
+
+        @CircuitBreaker(name = "outcomes", fallbackMethod = "fallbackAsync")
+        public CompletableFuture<String> fallBackAsync() {
+            return CompletableFuture.failedFuture(new IllegalStateException("always fails"));
+        }
+
+        @Retry(name = "outcomes")
+        public String fail() {
+            throw new IllegalStateException("always fails");
+        }
+
+        public String fallback(Throwable failure) {
+            return "fallback";
+        }
+
+        public CompletableFuture<String> fallbackAsync(Throwable failure) {
+            return CompletableFuture.completedFuture("fallback");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.inventory.controller;
+
+import com.ecommerce.inventory.ledger.LedgerResult;
+import com.ecommerce.inventory.ledger.Reservation;
+import com.ecommerce.inventory.ledger.ReservationOutcome;
+import com.ecommerce.inventory.model.ReservationRequest;
+import com.ecommerce.inventory.model.ReservationResponse;
+import com.ecommerce.inventory.model.StockLevel;
+import com.ecommerce.inventory.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+
+    @Autowired
+    public InventoryController(InventoryService inventoryService) {
+        this.inventoryService = inventoryService;
+    }
+
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable Long productId) {
+        return inventoryService.getStockLevel(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{productId}")
+    public ResponseEntity<StockLevel> setStock(@PathVariable Long productId, @RequestParam Integer quantity) {
+        return stockLevelResponse(productId, inventoryService.setStock(productId, quantity));
+    }
+
+    @PostMapping("/{productId}/adjust")
+    public ResponseEntity<StockLevel> adjustStock(@PathVariable Long productId, @RequestParam Integer delta) {
+        return stockLevelResponse(productId, inventoryService.adjustStock(productId, delta));
+    }
+
+    @PostMapping("/reservations")
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody ReservationRequest request) {
+        try {
+            ReservationOutcome outcome = inventoryService.reserve(request);
+            if (outcome.result() != LedgerResult.OK) {
+                return ResponseEntity.status(statusOf(outcome.result())).build();
+            }
+            Reservation reservation = outcome.reservation();
+            return new ResponseEntity<>(new ReservationResponse(reservation.reservationId(),
+                    reservation.productId(), reservation.quantity(), reservation.expiresAt()), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<Void> commitReservation(@PathVariable String reservationId) {
+        return ResponseEntity.status(statusOf(inventoryService.commitReservation(reservationId))).build();
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String reservationId) {
+        return ResponseEntity.status(statusOf(inventoryService.releaseReservation(reservationId))).build();
+    }
+
+    private ResponseEntity<StockLevel> stockLevelResponse(Long productId, LedgerResult result) {
+        if (result != LedgerResult.OK) {
+            return ResponseEntity.status(statusOf(result)).build();
+        }
+        return inventoryService.getStockLevel(productId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static HttpStatus statusOf(LedgerResult result) {
+        switch (result) {
+            case OK:
+                return HttpStatus.OK;
+            case INSUFFICIENT_STOCK:
+                return HttpStatus.CONFLICT;
+            case OVERLOADED:
+                return HttpStatus.SERVICE_UNAVAILABLE;
+            default:
+                return HttpStatus.NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.inventory.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind journal for the StockLedger. Callers append without touching the database;
+ * a single writer thread drains the queue in FIFO order and inserts it in JDBC batches.
+ * Entries acknowledged to clients but not yet flushed are lost on a hard crash, which bounds
+ * the durability window to roughly one flush interval.
+ *
+ * A batch the database rejects for its content is retried entry by entry and the rejected
+ * entries are moved to the quarantine table, so one bad entry cannot stall the writer while
+ * the backlog fills. Other failures keep the batch and retry it until shutdown, which waits
+ * at most the configured drain timeout before giving up on unflushed entries.
+ */
+@Component
+public class InventoryJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryJournal.class);
+
+    private final InventoryJournalEntryRepository journalEntryRepository;
+    private final QuarantinedJournalEntryRepository quarantineRepository;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxBacklog;
+    private final long shutdownTimeoutMs;
+    private final Queue<InventoryJournalEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile long drainDeadlineNanos;
+
+    @Autowired
+    public InventoryJournal(InventoryJournalEntryRepository journalEntryRepository,
+                            QuarantinedJournalEntryRepository quarantineRepository,
+                            @Value("${inventory.journal.batch-size:1000}") int batchSize,
+                            @Value("${inventory.journal.flush-interval-ms:5}") long flushIntervalMs,
+                            @Value("${inventory.journal.max-backlog:200000}") int maxBacklog,
+                            @Value("${inventory.journal.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.quarantineRepository = quarantineRepository;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxBacklog = maxBacklog;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.writer = new Thread(this::writeLoop, "inventory-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    // Called once recovery knows the highest sequence already persisted
+    public void start(long lastSequence) {
+        sequence.set(lastSequence);
+        writer.start();
+    }
+
+    public boolean hasCapacity() {
+        return backlog.get() < maxBacklog;
+    }
+
+    public void append(JournalEntryType type, Long productId, int availableDelta, int reservedDelta,
+                       String reservationId, Instant expiresAt) {
+        InventoryJournalEntry entry = new InventoryJournalEntry(sequence.incrementAndGet(), type, productId,
+                availableDelta, reservedDelta, reservationId, expiresAt, Instant.now(), null);
+        pending.add(entry);
+        backlog.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        drainDeadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeoutMs + TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private void writeLoop() {
+        List<InventoryJournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty() || !batch.isEmpty()) {
+            if (!running && System.nanoTime() - drainDeadlineNanos > 0) {
+                log.error("Inventory journal stopped with {} entries unflushed; they are lost", backlog.get());
+                return;
+            }
+            if (batch.isEmpty()) {
+                InventoryJournalEntry entry;
+                while (batch.size() < batchSize && (entry = pending.poll()) != null) {
+                    batch.add(entry);
+                }
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            try {
+                journalEntryRepository.saveAll(batch);
+                backlog.addAndGet(-batch.size());
+                batch.clear();
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Inventory journal batch of {} entries rejected, flushing them one by one", batch.size(), e);
+                batch.forEach(entry -> entry.setVersion(null));
+                flushEach(batch);
+            } catch (RuntimeException e) {
+                // Keep the batch and retry: dropping it would make the journal disagree with memory
+                log.warn("Failed to flush {} inventory journal entries, retrying", batch.size(), e);
+                batch.forEach(entry -> entry.setVersion(null));
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    // Saves entries singly, quarantining the ones the database rejects. Stops at the first
+    // other failure and leaves the remaining entries in the batch for the next attempt.
+    private void flushEach(List<InventoryJournalEntry> batch) {
+        for (Iterator<InventoryJournalEntry> it = batch.iterator(); it.hasNext(); ) {
+            InventoryJournalEntry entry = it.next();
+            try {
+                journalEntryRepository.save(entry);
+            } catch (DataIntegrityViolationException e) {
+                entry.setVersion(null);
+                quarantine(entry, e);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush inventory journal entry {}, retrying", entry.getSequence(), e);
+                batch.forEach(pendingEntry -> pendingEntry.setVersion(null));
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+                return;
+            }
+            it.remove();
+            backlog.decrementAndGet();
+        }
+    }
+
+    private void quarantine(InventoryJournalEntry entry, DataIntegrityViolationException cause) {
+        log.error("Quarantining inventory journal entry {}: {}", entry, cause.getMostSpecificCause().getMessage());
+        try {
+            quarantineRepository.save(QuarantinedJournalEntry.of(entry, cause.getMostSpecificCause().getMessage()));
+        } catch (RuntimeException e) {
+            // The entry is already logged in full above; keeping it would stall the writer again
+            log.error("Failed to store quarantined inventory journal entry {}", entry.getSequence(), e);
+        }
+    }
+}
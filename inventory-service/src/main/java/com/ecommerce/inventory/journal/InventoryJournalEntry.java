@@ -0,0 +1,48 @@
+package com.ecommerce.inventory.journal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One ledger mutation, recorded as counter deltas. Deltas commute, so replaying entries
+ * in sequence order rebuilds the counters even if two writers were numbered out of order.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_journal")
+public class InventoryJournalEntry {
+
+    @Id
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private JournalEntryType type;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private int availableDelta;
+    private int reservedDelta;
+
+    @Column(length = 36)
+    private String reservationId;
+
+    private Instant expiresAt; // set on RESERVE only
+    private Instant createdAt;
+
+    @Version
+    private Long version; // null marks a new row, so saveAll inserts without a select
+}
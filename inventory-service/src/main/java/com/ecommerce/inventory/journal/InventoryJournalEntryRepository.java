@@ -0,0 +1,17 @@
+package com.ecommerce.inventory.journal;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryJournalEntryRepository extends JpaRepository<InventoryJournalEntry, Long> {
+
+    List<InventoryJournalEntry> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.sequence), 0) FROM InventoryJournalEntry e")
+    long findMaxSequence();
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.inventory.journal;
+
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.InventoryReservation;
+import com.ecommerce.inventory.model.InventoryStatus;
+import com.ecommerce.inventory.repository.InventoryItemRepository;
+import com.ecommerce.inventory.repository.InventoryReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds flushed journal entries into the inventory_items snapshot and the open
+ * reservations table, then deletes them, all in one transaction per chunk. Recovery
+ * therefore only has to replay whatever has not been folded yet.
+ */
+@Component
+public class JournalCheckpointer {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalCheckpointer.class);
+
+    private final InventoryJournalEntryRepository journalEntryRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int foldBatchSize;
+    private final int maxBatchesPerRun;
+    private final int lowStockThreshold;
+
+    @Autowired
+    public JournalCheckpointer(InventoryJournalEntryRepository journalEntryRepository,
+                               InventoryItemRepository inventoryItemRepository,
+                               InventoryReservationRepository inventoryReservationRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${inventory.checkpoint.batch-size:5000}") int foldBatchSize,
+                               @Value("${inventory.checkpoint.max-batches-per-run:20}") int maxBatchesPerRun,
+                               @Value("${inventory.low-stock-threshold:10}") int lowStockThreshold) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.inventoryReservationRepository = inventoryReservationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.foldBatchSize = foldBatchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.checkpoint.interval-ms:1000}")
+    public void checkpoint() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer folded = transactionTemplate.execute(status -> foldNextBatch());
+                if (folded == null || folded < foldBatchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Inventory checkpoint failed, journal entries will be folded on the next run", e);
+        }
+    }
+
+    private int foldNextBatch() {
+        List<InventoryJournalEntry> entries = journalEntryRepository
+                .findBySequenceGreaterThanOrderBySequenceAsc(0L, Limit.of(foldBatchSize));
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        Map<Long, Long> lastSequence = new HashMap<>();
+        Map<String, InventoryReservation> opened = new LinkedHashMap<>();
+        List<String> closed = new ArrayList<>();
+        for (InventoryJournalEntry entry : entries) {
+            int[] delta = deltas.computeIfAbsent(entry.getProductId(), id -> new int[2]);
+            delta[0] += entry.getAvailableDelta();
+            delta[1] += entry.getReservedDelta();
+            lastSequence.merge(entry.getProductId(), entry.getSequence(), Math::max);
+
+            if (entry.getType() == JournalEntryType.RESERVE) {
+                opened.put(entry.getReservationId(), new InventoryReservation(entry.getReservationId(),
+                        entry.getProductId(), entry.getReservedDelta(), entry.getExpiresAt(), null));
+            } else if (entry.getReservationId() != null && opened.remove(entry.getReservationId()) == null) {
+                // Reserved in an earlier checkpoint, so the row already exists
+                closed.add(entry.getReservationId());
+            }
+        }
+
+        Map<Long, InventoryItem> items = inventoryItemRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(InventoryItem::getProductId, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Long, int[]> delta : deltas.entrySet()) {
+            InventoryItem item = items.computeIfAbsent(delta.getKey(),
+                    id -> new InventoryItem(id, 0, 0, null, 0L, null, null));
+            item.setAvailable(item.getAvailable() + delta.getValue()[0]);
+            item.setReserved(item.getReserved() + delta.getValue()[1]);
+            item.setStatus(InventoryStatus.of(item.getAvailable(), lowStockThreshold));
+            item.setJournalSequence(Math.max(item.getJournalSequence(), lastSequence.get(delta.getKey())));
+            item.setUpdatedAt(now);
+        }
+
+        inventoryItemRepository.saveAll(items.values());
+        inventoryReservationRepository.saveAll(opened.values());
+        if (!closed.isEmpty()) {
+            inventoryReservationRepository.deleteAllByIdInBatch(closed);
+        }
+        journalEntryRepository.deleteAllByIdInBatch(
+                entries.stream().map(InventoryJournalEntry::getSequence).collect(Collectors.toList()));
+        return entries.size();
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.inventory.journal;
+
+public enum JournalEntryType {
+    ADJUST,
+    RESERVE,
+    COMMIT,
+    RELEASE,
+    EXPIRE
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.inventory.journal;
+
+import com.ecommerce.inventory.ledger.Reservation;
+import com.ecommerce.inventory.ledger.StockLedger;
+import com.ecommerce.inventory.model.InventoryItem;
+import com.ecommerce.inventory.model.InventoryReservation;
+import com.ecommerce.inventory.repository.InventoryItemRepository;
+import com.ecommerce.inventory.repository.InventoryReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rebuilds the StockLedger at startup: load the checkpointed snapshot and open
+ * reservations, then replay the unfolded journal in sequence order. Runs before the
+ * web server starts, so no request ever sees a partially recovered ledger.
+ */
+@Component
+public class JournalRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalRecovery.class);
+
+    private final InventoryItemRepository inventoryItemRepository;
+    private final InventoryReservationRepository inventoryReservationRepository;
+    private final InventoryJournalEntryRepository journalEntryRepository;
+    private final InventoryJournal journal;
+    private final StockLedger stockLedger;
+    private final int replayBatchSize;
+
+    @Autowired
+    public JournalRecovery(InventoryItemRepository inventoryItemRepository,
+                           InventoryReservationRepository inventoryReservationRepository,
+                           InventoryJournalEntryRepository journalEntryRepository,
+                           InventoryJournal journal,
+                           StockLedger stockLedger,
+                           @Value("${inventory.recovery.batch-size:10000}") int replayBatchSize) {
+        this.inventoryItemRepository = inventoryItemRepository;
+        this.inventoryReservationRepository = inventoryReservationRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.journal = journal;
+        this.stockLedger = stockLedger;
+        this.replayBatchSize = replayBatchSize;
+    }
+
+    @PostConstruct
+    public void recover() {
+        long lastSequence = 0;
+        List<InventoryItem> items = inventoryItemRepository.findAll();
+        for (InventoryItem item : items) {
+            stockLedger.restoreCounter(item.getProductId(), item.getAvailable(), item.getReserved());
+            lastSequence = Math.max(lastSequence, item.getJournalSequence());
+        }
+        List<InventoryReservation> openReservations = inventoryReservationRepository.findAll();
+        for (InventoryReservation reservation : openReservations) {
+            stockLedger.restoreReservation(new Reservation(reservation.getReservationId(),
+                    reservation.getProductId(), reservation.getQuantity(), reservation.getExpiresAt()));
+        }
+
+        long replayed = 0;
+        long cursor = 0;
+        List<InventoryJournalEntry> entries;
+        do {
+            entries = journalEntryRepository.findBySequenceGreaterThanOrderBySequenceAsc(cursor,
+                    Limit.of(replayBatchSize));
+            for (InventoryJournalEntry entry : entries) {
+                replay(entry);
+                cursor = entry.getSequence();
+            }
+            replayed += entries.size();
+        } while (entries.size() == replayBatchSize);
+
+        journal.start(Math.max(lastSequence, cursor));
+        log.info("Recovered inventory ledger: {} items, {} open reservations, {} journal entries replayed",
+                items.size(), openReservations.size(), replayed);
+    }
+
+    private void replay(InventoryJournalEntry entry) {
+        stockLedger.replay(entry.getProductId(), entry.getAvailableDelta(), entry.getReservedDelta());
+        if (entry.getType() == JournalEntryType.RESERVE) {
+            stockLedger.restoreReservation(new Reservation(entry.getReservationId(), entry.getProductId(),
+                    entry.getReservedDelta(), entry.getExpiresAt()));
+        } else if (entry.getReservationId() != null) {
+            stockLedger.forgetReservation(entry.getReservationId());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.inventory.journal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A journal entry the database refused to store. It is kept here for inspection instead of
+ * blocking the writer; recovery and checkpoints never read this table.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_journal_quarantine")
+public class QuarantinedJournalEntry {
+
+    @Id
+    private Long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private JournalEntryType type;
+
+    private Long productId;
+    private int availableDelta;
+    private int reservedDelta;
+
+    @Column(length = 36)
+    private String reservationId;
+
+    private Instant expiresAt;
+    private Instant createdAt;
+    private Instant quarantinedAt;
+
+    @Column(length = 1000)
+    private String reason;
+
+    @Version
+    private Long version; // null marks a new row, so save inserts without a select
+
+    static QuarantinedJournalEntry of(InventoryJournalEntry entry, String reason) {
+        String trimmed = reason == null || reason.length() <= 1000 ? reason : reason.substring(0, 1000);
+        return new QuarantinedJournalEntry(entry.getSequence(), entry.getType(), entry.getProductId(),
+                entry.getAvailableDelta(), entry.getReservedDelta(), entry.getReservationId(), entry.getExpiresAt(),
+                entry.getCreatedAt(), Instant.now(), trimmed, null);
+    }
+}
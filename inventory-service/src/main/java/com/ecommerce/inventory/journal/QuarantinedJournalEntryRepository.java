@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.journal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuarantinedJournalEntryRepository extends JpaRepository<QuarantinedJournalEntry, Long> {
+}
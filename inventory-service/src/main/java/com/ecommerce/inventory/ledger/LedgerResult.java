@@ -0,0 +1,9 @@
+package com.ecommerce.inventory.ledger;
+
+public enum LedgerResult {
+    OK,
+    INSUFFICIENT_STOCK,
+    UNKNOWN_PRODUCT,
+    UNKNOWN_RESERVATION,
+    OVERLOADED // journal backlog is full; the caller should retry later
+}
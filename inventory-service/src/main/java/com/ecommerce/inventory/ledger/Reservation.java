@@ -0,0 +1,6 @@
+package com.ecommerce.inventory.ledger;
+
+import java.time.Instant;
+
+public record Reservation(String reservationId, Long productId, int quantity, Instant expiresAt) {
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.ledger;
+
+public record ReservationOutcome(LedgerResult result, Reservation reservation) {
+
+    static ReservationOutcome failed(LedgerResult result) {
+        return new ReservationOutcome(result, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.inventory.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Available and reserved quantities for one SKU packed into a single long, so every
+ * operation is one compare-and-set and the two numbers can never be observed torn.
+ */
+final class StockCounter {
+
+    private final AtomicLong state;
+
+    StockCounter(int available, int reserved) {
+        this.state = new AtomicLong(pack(available, reserved));
+    }
+
+    int available() {
+        return available(state.get());
+    }
+
+    int reserved() {
+        return reserved(state.get());
+    }
+
+    long snapshot() {
+        return state.get();
+    }
+
+    boolean reserve(int quantity) {
+        while (true) {
+            long current = state.get();
+            int available = available(current);
+            if (available < quantity) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack(available - quantity, reserved(current) + quantity))) {
+                return true;
+            }
+        }
+    }
+
+    // Reserved units leave the warehouse
+    void commit(int quantity) {
+        apply(0, -quantity);
+    }
+
+    // Reserved units go back on the shelf
+    void release(int quantity) {
+        apply(quantity, -quantity);
+    }
+
+    boolean adjust(int delta) {
+        while (true) {
+            long current = state.get();
+            long updated = (long) available(current) + delta;
+            if (updated < 0 || updated > Integer.MAX_VALUE) {
+                return false;
+            }
+            if (state.compareAndSet(current, pack((int) updated, reserved(current)))) {
+                return true;
+            }
+        }
+    }
+
+    // Sets the available quantity and returns the delta that was actually applied
+    int set(int available) {
+        while (true) {
+            long current = state.get();
+            if (state.compareAndSet(current, pack(available, reserved(current)))) {
+                return available - available(current);
+            }
+        }
+    }
+
+    // Unchecked, used for journal replay where the deltas are already known to be valid
+    void apply(int availableDelta, int reservedDelta) {
+        state.accumulateAndGet(0L, (current, ignored) ->
+                pack(available(current) + availableDelta, reserved(current) + reservedDelta));
+    }
+
+    static int available(long state) {
+        return (int) (state >>> 32);
+    }
+
+    static int reserved(long state) {
+        return (int) state;
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.inventory.ledger;
+
+import com.ecommerce.inventory.journal.InventoryJournal;
+import com.ecommerce.inventory.journal.JournalEntryType;
+import com.ecommerce.inventory.model.InventoryStatus;
+import com.ecommerce.inventory.model.StockLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory source of truth for stock. Counters are CAS-updated per SKU, reservations
+ * live in a concurrent map and are expired through one-second buckets, and every
+ * mutation is appended to the write-behind journal before the call returns.
+ *
+ * The service must run as a single instance: each replica would hold its own counters and
+ * number its own journal sequence, so two of them would sell the same stock twice and
+ * overwrite each other's journal entries.
+ */
+@Component
+public class StockLedger {
+
+    private final InventoryJournal journal;
+    private final int lowStockThreshold;
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, Queue<Reservation>> expiryBuckets = new ConcurrentHashMap<>();
+    private volatile long sweptThroughSecond = Instant.now().getEpochSecond() - 1;
+
+    @Autowired
+    public StockLedger(InventoryJournal journal,
+                       @Value("${inventory.low-stock-threshold:10}") int lowStockThreshold) {
+        this.journal = journal;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Optional<StockLevel> getStockLevel(Long productId) {
+        StockCounter counter = counters.get(productId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+        long state = counter.snapshot();
+        int available = StockCounter.available(state);
+        return Optional.of(new StockLevel(productId, available, StockCounter.reserved(state),
+                InventoryStatus.of(available, lowStockThreshold)));
+    }
+
+    public LedgerResult setAvailable(Long productId, int available) {
+        if (available < 0) {
+            return LedgerResult.INSUFFICIENT_STOCK;
+        }
+        if (!journal.hasCapacity()) {
+            return LedgerResult.OVERLOADED;
+        }
+        int delta = counters.computeIfAbsent(productId, id -> new StockCounter(0, 0)).set(available);
+        journal.append(JournalEntryType.ADJUST, productId, delta, 0, null, null);
+        return LedgerResult.OK;
+    }
+
+    public LedgerResult adjust(Long productId, int delta) {
+        if (!journal.hasCapacity()) {
+            return LedgerResult.OVERLOADED;
+        }
+        StockCounter counter = delta > 0
+                ? counters.computeIfAbsent(productId, id -> new StockCounter(0, 0))
+                : counters.get(productId);
+        if (counter == null) {
+            return LedgerResult.UNKNOWN_PRODUCT;
+        }
+        if (!counter.adjust(delta)) {
+            return LedgerResult.INSUFFICIENT_STOCK;
+        }
+        journal.append(JournalEntryType.ADJUST, productId, delta, 0, null, null);
+        return LedgerResult.OK;
+    }
+
+    public ReservationOutcome reserve(Long productId, int quantity, long ttlSeconds) {
+        if (!journal.hasCapacity()) {
+            return ReservationOutcome.failed(LedgerResult.OVERLOADED);
+        }
+        StockCounter counter = counters.get(productId);
+        if (counter == null) {
+            return ReservationOutcome.failed(LedgerResult.UNKNOWN_PRODUCT);
+        }
+        if (!counter.reserve(quantity)) {
+            return ReservationOutcome.failed(LedgerResult.INSUFFICIENT_STOCK);
+        }
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), productId, quantity,
+                Instant.now().plusSeconds(ttlSeconds));
+        reservations.put(reservation.reservationId(), reservation);
+        journal.append(JournalEntryType.RESERVE, productId, -quantity, quantity,
+                reservation.reservationId(), reservation.expiresAt());
+        scheduleExpiry(reservation);
+        return new ReservationOutcome(LedgerResult.OK, reservation);
+    }
+
+    public LedgerResult commit(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return LedgerResult.UNKNOWN_RESERVATION;
+        }
+        counters.get(reservation.productId()).commit(reservation.quantity());
+        journal.append(JournalEntryType.COMMIT, reservation.productId(), 0, -reservation.quantity(),
+                reservationId, null);
+        return LedgerResult.OK;
+    }
+
+    public LedgerResult release(String reservationId) {
+        Reservation reservation = reservations.remove(reservationId);
+        if (reservation == null) {
+            return LedgerResult.UNKNOWN_RESERVATION;
+        }
+        releaseInto(reservation, JournalEntryType.RELEASE);
+        return LedgerResult.OK;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:500}")
+    public void expireReservations() {
+        long now = Instant.now().getEpochSecond();
+        for (long second = sweptThroughSecond + 1; second <= now; second++) {
+            // Publish progress before draining so late registrations can see they missed the bucket
+            sweptThroughSecond = second;
+            Queue<Reservation> bucket = expiryBuckets.remove(second);
+            if (bucket == null) {
+                continue;
+            }
+            for (Reservation reservation : bucket) {
+                // Committed or released reservations are already gone from the map
+                if (reservations.remove(reservation.reservationId(), reservation)) {
+                    releaseInto(reservation, JournalEntryType.EXPIRE);
+                }
+            }
+        }
+    }
+
+    // Recovery hooks: rebuild state from the snapshot and journal without journaling again
+
+    public void restoreCounter(Long productId, int available, int reserved) {
+        counters.put(productId, new StockCounter(available, reserved));
+    }
+
+    public void replay(Long productId, int availableDelta, int reservedDelta) {
+        counters.computeIfAbsent(productId, id -> new StockCounter(0, 0)).apply(availableDelta, reservedDelta);
+    }
+
+    public void restoreReservation(Reservation reservation) {
+        reservations.put(reservation.reservationId(), reservation);
+        scheduleExpiry(reservation);
+    }
+
+    public void forgetReservation(String reservationId) {
+        reservations.remove(reservationId);
+    }
+
+    private void releaseInto(Reservation reservation, JournalEntryType type) {
+        counters.get(reservation.productId()).release(reservation.quantity());
+        journal.append(type, reservation.productId(), reservation.quantity(), -reservation.quantity(),
+                reservation.reservationId(), null);
+    }
+
+    private void scheduleExpiry(Reservation reservation) {
+        long second = reservation.expiresAt().getEpochSecond();
+        while (true) {
+            long bucketSecond = Math.max(second, sweptThroughSecond + 1);
+            expiryBuckets.computeIfAbsent(bucketSecond, s -> new ConcurrentLinkedQueue<>()).add(reservation);
+            // If the sweeper reached this bucket meanwhile it may have drained it already; registering
+            // twice is harmless because only one remove(id, reservation) can succeed
+            if (sweptThroughSecond < bucketSecond) {
+                return;
+            }
+        }
+    }
+}
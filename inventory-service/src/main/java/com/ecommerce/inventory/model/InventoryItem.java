@@ -0,0 +1,40 @@
+package com.ecommerce.inventory.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed stock snapshot for one product. The live counters are held in memory by
+ * the StockLedger; this row only trails them by whatever is still in the journal.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_items")
+public class InventoryItem {
+
+    @Id
+    private Long productId;
+
+    private int available;
+    private int reserved;
+
+    @Enumerated(EnumType.STRING)
+    private InventoryStatus status;
+
+    private long journalSequence; // highest journal entry folded into this row
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version; // null marks a new row, so saveAll inserts without a select
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Open reservation whose journal entries have already been folded into the snapshot
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_reservations")
+public class InventoryReservation {
+
+    @Id
+    @Column(length = 36)
+    private String reservationId;
+
+    private Long productId;
+    private int quantity;
+    private Instant expiresAt;
+
+    @Version
+    private Long version;
+}
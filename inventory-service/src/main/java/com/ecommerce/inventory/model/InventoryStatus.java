@@ -0,0 +1,14 @@
+package com.ecommerce.inventory.model;
+
+public enum InventoryStatus {
+    IN_STOCK,
+    LOW_STOCK,
+    OUT_OF_STOCK;
+
+    public static InventoryStatus of(int available, int lowStockThreshold) {
+        if (available <= 0) {
+            return OUT_OF_STOCK;
+        }
+        return available <= lowStockThreshold ? LOW_STOCK : IN_STOCK;
+    }
+}
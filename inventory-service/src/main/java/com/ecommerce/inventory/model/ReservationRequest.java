@@ -0,0 +1,14 @@
+package com.ecommerce.inventory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    private Long productId;
+    private Integer quantity;
+    private Long ttlSeconds; // optional, defaults to inventory.reservation.default-ttl-seconds
+}
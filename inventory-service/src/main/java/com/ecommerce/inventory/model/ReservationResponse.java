@@ -0,0 +1,17 @@
+package com.ecommerce.inventory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponse {
+    private String reservationId;
+    private Long productId;
+    private int quantity;
+    private Instant expiresAt;
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.inventory.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevel {
+    private Long productId;
+    private int available;
+    private int reserved;
+    private InventoryStatus status;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.ledger.LedgerResult;
+import com.ecommerce.inventory.ledger.ReservationOutcome;
+import com.ecommerce.inventory.model.ReservationRequest;
+import com.ecommerce.inventory.model.StockLevel;
+
+import java.util.Optional;
+
+public interface InventoryService {
+    Optional<StockLevel> getStockLevel(Long productId);
+    LedgerResult setStock(Long productId, int quantity);
+    LedgerResult adjustStock(Long productId, int delta);
+    ReservationOutcome reserve(ReservationRequest request);
+    LedgerResult commitReservation(String reservationId);
+    LedgerResult releaseReservation(String reservationId);
+}
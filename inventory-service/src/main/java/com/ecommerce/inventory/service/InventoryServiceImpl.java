@@ -0,0 +1,65 @@
+package com.ecommerce.inventory.service;
+
+import com.ecommerce.inventory.ledger.LedgerResult;
+import com.ecommerce.inventory.ledger.ReservationOutcome;
+import com.ecommerce.inventory.ledger.StockLedger;
+import com.ecommerce.inventory.model.ReservationRequest;
+import com.ecommerce.inventory.model.StockLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    private final StockLedger stockLedger;
+    private final long defaultTtlSeconds;
+    private final long maxTtlSeconds;
+
+    @Autowired
+    public InventoryServiceImpl(StockLedger stockLedger,
+                                @Value("${inventory.reservation.default-ttl-seconds:600}") long defaultTtlSeconds,
+                                @Value("${inventory.reservation.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.stockLedger = stockLedger;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxTtlSeconds = maxTtlSeconds;
+    }
+
+    @Override
+    public Optional<StockLevel> getStockLevel(Long productId) {
+        return stockLedger.getStockLevel(productId);
+    }
+
+    @Override
+    public LedgerResult setStock(Long productId, int quantity) {
+        return stockLedger.setAvailable(productId, quantity);
+    }
+
+    @Override
+    public LedgerResult adjustStock(Long productId, int delta) {
+        return stockLedger.adjust(productId, delta);
+    }
+
+    @Override
+    public ReservationOutcome reserve(ReservationRequest request) {
+        if (request.getProductId() == null || request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("productId and a positive quantity are required");
+        }
+        long ttlSeconds = request.getTtlSeconds() == null
+                ? defaultTtlSeconds
+                : Math.min(Math.max(request.getTtlSeconds(), 1), maxTtlSeconds);
+        return stockLedger.reserve(request.getProductId(), request.getQuantity(), ttlSeconds);
+    }
+
+    @Override
+    public LedgerResult commitReservation(String reservationId) {
+        return stockLedger.commit(reservationId);
+    }
+
+    @Override
+    public LedgerResult releaseReservation(String reservationId) {
+        return stockLedger.release(reservationId);
+    }
+}
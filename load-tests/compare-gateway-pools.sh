@@ -0,0 +1,45 @@
+#!/bin/bash
+
+# Load comparison for the gateway's default HttpClient and the per-route upstream pools.
+# Start api-gateway with UPSTREAM_POOLS_ENABLED=false, run `./compare-gateway-pools.sh default`,
+# restart it with UPSTREAM_POOLS_ENABLED=true, run `./compare-gateway-pools.sh pooled`,
+# then `./compare-gateway-pools.sh report`. Pool metrics are under
+# /actuator/metrics/reactor.netty.connection.provider.* while a run is in progress.
+# Requires `hey` (https://github.com/rakyll/hey).
+
+MODE=${1:?usage: compare-gateway-pools.sh default|pooled|report}
+DURATION=${DURATION:-30s}
+CONCURRENCY=${CONCURRENCY:-400}
+GATEWAY_URL=${GATEWAY_URL:-http://localhost:8080}
+RESULTS_DIR=$(dirname "$0")/results
+
+mkdir -p "$RESULTS_DIR"
+
+summary() {
+    echo "  $(grep 'Requests/sec' "$1" | xargs)"
+    grep -E '  (50|95|99)% in' "$1"
+    grep -A5 'Status code distribution' "$1" | tail -n +2
+}
+
+if [ "$MODE" = "report" ]; then
+    for endpoint in products inventory; do
+        for mode in default pooled; do
+            if [ -f "$RESULTS_DIR/gateway-$endpoint-$mode.txt" ]; then
+                echo "$endpoint [$mode]"
+                summary "$RESULTS_DIR/gateway-$endpoint-$mode.txt"
+            fi
+        done
+    done
+    exit 0
+fi
+
+# Routes without a rate limiter; no-cache skips the gateway response cache so every request goes upstream
+echo "GET /api/products/1 via gateway ($MODE, $CONCURRENCY concurrent, $DURATION)"
+hey -z "$DURATION" -c "$CONCURRENCY" -H "Cache-Control: no-cache" \
+    "$GATEWAY_URL/api/products/1" > "$RESULTS_DIR/gateway-products-$MODE.txt"
+summary "$RESULTS_DIR/gateway-products-$MODE.txt"
+
+echo "GET /api/inventory/1 via gateway ($MODE, $CONCURRENCY concurrent, $DURATION)"
+hey -z "$DURATION" -c "$CONCURRENCY" -H "Cache-Control: no-cache" \
+    "$GATEWAY_URL/api/inventory/1" > "$RESULTS_DIR/gateway-inventory-$MODE.txt"
+summary "$RESULTS_DIR/gateway-inventory-$MODE.txt"
@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Load comparison for platform-thread and virtual-thread request handling.
+# Start payment-service and shipping-service with VIRTUAL_THREADS_ENABLED=false,
+# run `./compare-thread-modes.sh platform`, restart them with VIRTUAL_THREADS_ENABLED=true,
+# run `./compare-thread-modes.sh virtual`, then `./compare-thread-modes.sh report`.
+# Requires `hey` (https://github.com/rakyll/hey).
+
+MODE=${1:?usage: compare-thread-modes.sh platform|virtual|report}
+DURATION=${DURATION:-30s}
+CONCURRENCY=${CONCURRENCY:-200}
+PAYMENT_URL=${PAYMENT_URL:-http://localhost:8082}
+SHIPPING_URL=${SHIPPING_URL:-http://localhost:8084}
+RESULTS_DIR=$(dirname "$0")/results
+
+mkdir -p "$RESULTS_DIR"
+
+summary() {
+    echo "  $(grep 'Requests/sec' "$1" | xargs)"
+    grep -E '  (50|95|99)% in' "$1"
+}
+
+if [ "$MODE" = "report" ]; then
+    for endpoint in payments shipping-status; do
+        for mode in platform virtual; do
+            if [ -f "$RESULTS_DIR/$endpoint-$mode.txt" ]; then
+                echo "$endpoint [$mode]"
+                summary "$RESULTS_DIR/$endpoint-$mode.txt"
+            fi
+        done
+    done
+    exit 0
+fi
+
+echo "POST /api/payments ($MODE, $CONCURRENCY concurrent, $DURATION)"
+hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T application/json \
+    -d '{"orderId":1,"amount":10.00,"paymentMethod":"CREDIT_CARD","paymentDetails":"load-test"}' \
+    "$PAYMENT_URL/api/payments" > "$RESULTS_DIR/payments-$MODE.txt"
+summary "$RESULTS_DIR/payments-$MODE.txt"
+
+echo "GET /api/shipping/status/PENDING ($MODE, $CONCURRENCY concurrent, $DURATION)"
+hey -z "$DURATION" -c "$CONCURRENCY" \
+    "$SHIPPING_URL/api/shipping/status/PENDING" > "$RESULTS_DIR/shipping-status-$MODE.txt"
+summary "$RESULTS_DIR/shipping-status-$MODE.txt"
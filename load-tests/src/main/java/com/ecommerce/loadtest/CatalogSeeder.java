@@ -0,0 +1,42 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fills an empty catalog before the run. Seeding goes through the gateway like the load
+ * itself but happens before the measurement window, so it is never recorded.
+ */
+final class CatalogSeeder {
+
+    private CatalogSeeder() {
+    }
+
+    static void seedIfEmpty(LoadClient client, int products) throws IOException {
+        LoadClient.Response page = client.call("seed", "GET", "/api/products?size=1", null, null, System.nanoTime()).join();
+        if (!page.ok()) {
+            throw new IllegalStateException("Catalog is not reachable through the gateway: HTTP " + page.status());
+        }
+        if (!new ObjectMapper().readTree(page.body()).path("items").isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<LoadClient.Response>> created = new ArrayList<>(products);
+        for (int i = 1; i <= products; i++) {
+            String body = String.format(Locale.ROOT,
+                    "{\"name\":\"Load test product %d\",\"description\":\"Seeded for load tests\",\"price\":%.2f,\"stockQuantity\":1000000}",
+                    i, 5 + (i % 200) * 1.25);
+            created.add(client.call("seed", "POST", "/api/products", body, null, System.nanoTime()));
+        }
+        long failed = created.stream().map(CompletableFuture::join).filter(response -> !response.ok()).count();
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + products + " seed products could not be created");
+        }
+        System.out.printf("Seeded %d products%n", products);
+    }
+}
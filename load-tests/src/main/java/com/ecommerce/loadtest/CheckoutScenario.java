@@ -0,0 +1,210 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * One checkout session: browse the catalog, open a product, pay, wait for the shipment that
+ * shipping creates from the payment event and walk it through its status updates. Each step is
+ * due a think time after the previous one completed; a failed step ends the session.
+ */
+final class CheckoutScenario {
+
+    private static final List<String> STATUS_UPDATES = List.of("PROCESSING", "SHIPPED", "IN_TRANSIT", "DELIVERED");
+    // The shipment appears once the payment event has gone through the outbox and Kafka
+    private static final long SHIPMENT_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int MAX_SHIPMENT_POLLS = 40;
+
+    private final LoadClient client;
+    private final LoadMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long thinkTimeNanos;
+    private final int clients;
+    private final Semaphore sessions;
+    private final int maxSessions;
+    private final ScheduledExecutorService timer;
+    private final AtomicLong orderIds = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    CheckoutScenario(LoadClient client, LoadMetrics metrics, LoadTestOptions options) {
+        this.client = client;
+        this.metrics = metrics;
+        this.thinkTimeNanos = options.thinkTime.toNanos();
+        this.clients = options.clients;
+        this.maxSessions = options.maxSessions;
+        this.sessions = new Semaphore(options.maxSessions);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-think-time");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a session due at {@code arrivalNanos}. Called by the arrival schedule, which
+     * never waits for earlier sessions to finish.
+     */
+    void start(long arrivalNanos) {
+        boolean measured = metrics.measured(arrivalNanos);
+        if (!sessions.tryAcquire()) {
+            if (measured) {
+                metrics.sessionsDropped.increment();
+            }
+            return;
+        }
+        if (measured) {
+            metrics.sessionsStarted.increment();
+        }
+        String clientKey = clientKey(ThreadLocalRandom.current().nextInt(clients));
+        new Session(clientKey, orderIds.incrementAndGet(), measured).browse(arrivalNanos);
+    }
+
+    boolean awaitIdle(Duration timeout) throws InterruptedException {
+        if (sessions.tryAcquire(maxSessions, timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            sessions.release(maxSessions);
+            return true;
+        }
+        return false;
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // The in-process gateway registers these keys, so every client gets its own bucket
+    static String clientKey(int client) {
+        return "load-client-" + client;
+    }
+
+    private final class Session {
+        private final String clientKey;
+        private final long orderId;
+        private final boolean measured;
+
+        Session(String clientKey, long orderId, boolean measured) {
+            this.clientKey = clientKey;
+            this.orderId = orderId;
+            this.measured = measured;
+        }
+
+        void browse(long due) {
+            client.call("GET /api/products", "GET", "/api/products?size=20", null, clientKey, due)
+                    .thenAccept(response -> {
+                        JsonNode items = response.ok() ? json(response.body()).path("items") : null;
+                        if (items == null || items.isEmpty()) {
+                            abort();
+                            return;
+                        }
+                        JsonNode product = items.get(ThreadLocalRandom.current().nextInt(items.size()));
+                        afterThinkTime(next -> viewProduct(next, product.path("id").asLong()));
+                    });
+        }
+
+        void viewProduct(long due, long productId) {
+            client.call("GET /api/products/{id}", "GET", "/api/products/" + productId, null, clientKey, due)
+                    .thenAccept(response -> {
+                        if (!response.ok()) {
+                            abort();
+                            return;
+                        }
+                        double price = json(response.body()).path("price").asDouble(10.0);
+                        afterThinkTime(next -> pay(next, price));
+                    });
+        }
+
+        void pay(long due, double amount) {
+            String body = String.format(Locale.ROOT, "{\"orderId\":%d,\"amount\":%.2f,\"paymentMethod\":\"CREDIT_CARD\","
+                    + "\"paymentDetails\":\"4111-xxxx\",\"idempotencyKey\":\"%s\"}", orderId, amount, UUID.randomUUID());
+            client.call("POST /api/payments", "POST", "/api/payments", body, clientKey, due)
+                    .thenAccept(response -> {
+                        if (!response.ok()) {
+                            abort();
+                        } else if (!"COMPLETED".equals(json(response.body()).path("status").asText())) {
+                            complete(); // a declined payment gets no shipment
+                        } else {
+                            afterThinkTime(next -> awaitShipment(next, 1));
+                        }
+                    });
+        }
+
+        void awaitShipment(long due, int poll) {
+            client.call("GET /api/shipping/order/{orderId}", "GET", "/api/shipping/order/" + orderId, null, clientKey, due)
+                    .thenAccept(response -> {
+                        JsonNode shipments = response.ok() ? json(response.body()) : null;
+                        if (shipments == null || !shipments.isArray()) {
+                            abort();
+                        } else if (!shipments.isEmpty()) {
+                            long shipmentId = shipments.get(0).path("id").asLong();
+                            afterThinkTime(next -> updateStatus(next, shipmentId, 0));
+                        } else if (poll < MAX_SHIPMENT_POLLS) {
+                            after(SHIPMENT_POLL_NANOS, next -> awaitShipment(next, poll + 1));
+                        } else {
+                            abort();
+                        }
+                    });
+        }
+
+        void updateStatus(long due, long shipmentId, int index) {
+            String body = "{\"status\":\"" + STATUS_UPDATES.get(index) + "\"}";
+            client.call("PUT /api/shipping/{id}/status", "PUT", "/api/shipping/" + shipmentId + "/status", body,
+                            clientKey, due)
+                    .thenAccept(response -> {
+                        if (!response.ok()) {
+                            abort();
+                        } else if (index + 1 < STATUS_UPDATES.size()) {
+                            afterThinkTime(next -> updateStatus(next, shipmentId, index + 1));
+                        } else {
+                            complete();
+                        }
+                    });
+        }
+
+        // The next step is due a think time after now; if the timer runs late, that delay is measured too
+        private void afterThinkTime(LongConsumer step) {
+            after(thinkTimeNanos, step);
+        }
+
+        private void after(long delayNanos, LongConsumer step) {
+            long due = System.nanoTime() + delayNanos;
+            if (delayNanos <= 0) {
+                step.accept(due);
+            } else {
+                timer.schedule(() -> step.accept(due), delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void complete() {
+            if (measured) {
+                metrics.sessionsCompleted.increment();
+            }
+            sessions.release();
+        }
+
+        private void abort() {
+            if (measured) {
+                metrics.sessionsAborted.increment();
+            }
+            sessions.release();
+        }
+    }
+
+    private JsonNode json(String body) {
+        try {
+            return body == null ? objectMapper.missingNode() : objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.missingNode();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking HTTP calls against the gateway. A request never completes exceptionally:
+ * failures and timeouts come back as status 0 after being recorded.
+ */
+final class LoadClient {
+
+    record Response(int status, String body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final LoadMetrics metrics;
+
+    LoadClient(String baseUrl, Duration timeout, LoadMetrics metrics) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.metrics = metrics;
+    }
+
+    CompletableFuture<Response> call(String route, String method, String path, String jsonBody, String clientKey,
+                                     long intendedStartNanos) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .method(method, jsonBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(jsonBody));
+        if (jsonBody != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (clientKey != null) {
+            request.header("X-API-Key", clientKey);
+        }
+
+        long sentNanos = System.nanoTime();
+        return http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long completedNanos = System.nanoTime();
+                    Response result = failure == null
+                            ? new Response(response.statusCode(), response.body())
+                            : new Response(0, null);
+                    metrics.recordRequest(route, intendedStartNanos, sentNanos, completedNanos, result.status());
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.loadtest;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Everything a run records. Only work scheduled inside the measurement window counts, so the
+ * warm-up phase and the drain after the last arrival do not skew the numbers.
+ */
+final class LoadMetrics {
+
+    private final Map<String, RouteStats> routes = new ConcurrentSkipListMap<>();
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+    private volatile long measureUntilNanos = Long.MAX_VALUE;
+
+    final LongAdder sessionsStarted = new LongAdder();
+    final LongAdder sessionsCompleted = new LongAdder();
+    final LongAdder sessionsAborted = new LongAdder();
+    // Arrivals turned away because max-sessions were already in flight
+    final LongAdder sessionsDropped = new LongAdder();
+
+    void measureBetween(long fromNanos, long untilNanos) {
+        measureFromNanos = fromNanos;
+        measureUntilNanos = untilNanos;
+    }
+
+    boolean measured(long scheduledNanos) {
+        return scheduledNanos >= measureFromNanos && scheduledNanos < measureUntilNanos;
+    }
+
+    void recordRequest(String route, long intendedStartNanos, long sentNanos, long completedNanos, int status) {
+        if (measured(intendedStartNanos)) {
+            routes.computeIfAbsent(route, RouteStats::new).record(intendedStartNanos, sentNanos, completedNanos, status);
+        }
+    }
+
+    Collection<RouteStats> routes() {
+        return routes.values();
+    }
+}
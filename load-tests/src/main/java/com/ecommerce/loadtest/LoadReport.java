@@ -0,0 +1,111 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Prints the per-route summary, writes it as CSV together with one full percentile
+ * distribution per route ({@code .hgrm}, plottable with HdrHistogram's plotter), and
+ * checks the release gates.
+ */
+final class LoadReport {
+
+    private final LoadMetrics metrics;
+    private final LoadTestOptions options;
+    private final double measuredSeconds;
+
+    LoadReport(LoadMetrics metrics, LoadTestOptions options) {
+        this.metrics = metrics;
+        this.options = options;
+        this.measuredSeconds = options.duration.toNanos() / 1e9;
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nOpen model: %.1f sessions/s (%s arrivals) for %s, think time %s%n",
+                options.arrivalRate, options.poissonArrivals ? "poisson" : "constant", options.duration, options.thinkTime);
+        out.printf(Locale.ROOT, "Sessions: %d started, %d completed (%.1f/s), %d aborted, %d dropped%n%n",
+                metrics.sessionsStarted.sum(), metrics.sessionsCompleted.sum(), sessionThroughput(),
+                metrics.sessionsAborted.sum(), metrics.sessionsDropped.sum());
+        out.printf(Locale.ROOT, "%-30s %8s %8s %7s %9s %9s %9s %9s %9s %9s %9s%n", "route", "count", "req/s", "errors",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "svc p50", "svc p99");
+        for (RouteStats route : metrics.routes()) {
+            Histogram response = route.responseTime;
+            out.printf(Locale.ROOT, "%-30s %8d %8.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    route.route, route.count(), route.count() / measuredSeconds, route.errors.sum(),
+                    millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                    response.getMaxValue() / 1000.0,
+                    millis(route.serviceTime, 50), millis(route.serviceTime, 99));
+            if (route.errors.sum() > 0) {
+                Map<Integer, Long> statuses = new TreeMap<>();
+                route.statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+                out.printf("%-30s statuses %s%n", "", statuses);
+            }
+        }
+        out.println("\nLatency is measured from each request's scheduled start (svc columns: from when it was sent).");
+    }
+
+    void write() throws IOException {
+        Files.createDirectories(options.outputDir);
+        List<String> csv = new ArrayList<>();
+        csv.add("route,count,requests_per_second,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,service_p50_ms,service_p99_ms");
+        for (RouteStats route : metrics.routes()) {
+            Histogram response = route.responseTime;
+            csv.add(String.format(Locale.ROOT, "\"%s\",%d,%.2f,%d,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    route.route, route.count(), route.count() / measuredSeconds, route.errors.sum(),
+                    millis(response, 50), millis(response, 90), millis(response, 99), millis(response, 99.9),
+                    response.getMaxValue() / 1000.0, millis(route.serviceTime, 50), millis(route.serviceTime, 99)));
+
+            Path file = options.outputDir.resolve(route.route.replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Recorded in microseconds, reported in milliseconds
+                response.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        Files.write(options.outputDir.resolve("summary.csv"), csv);
+        System.out.println("Report written to " + options.outputDir.toAbsolutePath());
+    }
+
+    /**
+     * Returns one message per breached gate; empty when the run passes.
+     */
+    List<String> gateFailures() {
+        List<String> failures = new ArrayList<>();
+        if (options.maxP99Millis != null) {
+            for (RouteStats route : metrics.routes()) {
+                double p99 = millis(route.responseTime, 99);
+                if (p99 > options.maxP99Millis) {
+                    failures.add(String.format(Locale.ROOT, "%s p99 %.2f ms exceeds %.2f ms", route.route, p99, options.maxP99Millis));
+                }
+            }
+        }
+        if (options.maxErrorRate != null) {
+            long requests = metrics.routes().stream().mapToLong(RouteStats::count).sum();
+            long errors = metrics.routes().stream().mapToLong(route -> route.errors.sum()).sum();
+            double errorRate = requests == 0 ? 1.0 : (double) errors / requests;
+            if (errorRate > options.maxErrorRate) {
+                failures.add(String.format(Locale.ROOT, "error rate %.4f exceeds %.4f", errorRate, options.maxErrorRate));
+            }
+        }
+        if (options.minThroughput != null && sessionThroughput() < options.minThroughput) {
+            failures.add(String.format(Locale.ROOT, "completed sessions %.2f/s below %.2f/s", sessionThroughput(), options.minThroughput));
+        }
+        return failures;
+    }
+
+    private double sessionThroughput() {
+        return metrics.sessionsCompleted.sum() / measuredSeconds;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
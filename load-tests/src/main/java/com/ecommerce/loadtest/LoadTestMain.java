@@ -0,0 +1,78 @@
+package com.ecommerce.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives checkout sessions through the gateway at a fixed arrival rate (open model): new
+ * sessions keep arriving on schedule however slow the system gets, the way real users do.
+ * Without {@code --gateway-url} the whole system is started in-process first, see
+ * {@link LocalStack}.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LocalStack stack = options.gatewayUrl == null ? LocalStack.start(options) : null;
+        int exitCode;
+        try {
+            String gatewayUrl = stack != null ? stack.gatewayUrl() : options.gatewayUrl;
+            exitCode = run(gatewayUrl, options);
+        } finally {
+            if (stack != null) {
+                stack.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(String gatewayUrl, LoadTestOptions options) throws Exception {
+        LoadMetrics metrics = new LoadMetrics();
+        LoadClient client = new LoadClient(gatewayUrl, options.requestTimeout, metrics);
+        CatalogSeeder.seedIfEmpty(client, options.products);
+
+        CheckoutScenario scenario = new CheckoutScenario(client, metrics, options);
+        try {
+            generateArrivals(scenario, metrics, options);
+            // Sessions that arrived in the window may still be running; give them time to finish
+            Duration drain = options.requestTimeout.plus(options.thinkTime).multipliedBy(8);
+            if (!scenario.awaitIdle(drain)) {
+                System.out.println("Some sessions were still running after " + drain + "; they are counted as incomplete");
+            }
+        } finally {
+            scenario.shutdown();
+        }
+
+        LoadReport report = new LoadReport(metrics, options);
+        report.print(System.out);
+        report.write();
+        List<String> failures = report.gateFailures();
+        failures.forEach(failure -> System.out.println("GATE FAILED: " + failure));
+        return failures.isEmpty() ? 0 : 1;
+    }
+
+    // Each arrival is stamped with its scheduled time; if this loop falls behind, the lag is charged to latency
+    private static void generateArrivals(CheckoutScenario scenario, LoadMetrics metrics, LoadTestOptions options) {
+        double meanIntervalNanos = 1e9 / options.arrivalRate;
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        metrics.measureBetween(measureFrom, end);
+        System.out.printf("Warming up for %s, then measuring for %s%n", options.warmup, options.duration);
+
+        double next = start;
+        while (next < end) {
+            long due = (long) next;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            scenario.start(due);
+            next += options.poissonArrivals
+                    ? -Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all given as {@code --name=value}. Durations use the
+ * {@code 30s}/{@code 500ms}/{@code 2m} form.
+ */
+final class LoadTestOptions {
+
+    // Running against an already deployed gateway instead of the in-process stack
+    String gatewayUrl;
+    // New checkout sessions started per second, independent of how fast responses arrive
+    double arrivalRate = 20;
+    boolean poissonArrivals = true;
+    Duration warmup = Duration.ofSeconds(10);
+    Duration duration = Duration.ofSeconds(60);
+    Duration thinkTime = Duration.ofMillis(100);
+    Duration requestTimeout = Duration.ofSeconds(10);
+    int maxSessions = 10_000;
+    int products = 200;
+    // Distinct X-API-Key values, so the gateway rate limits per client rather than one bucket for everyone
+    int clients = 1_000;
+    Path outputDir = Path.of("load-tests", "results", "java");
+
+    // Release gates; a breach makes the run exit non-zero
+    Double maxP99Millis;
+    Double maxErrorRate;
+    Double minThroughput;
+
+    // Extra properties for the in-process applications, keyed by application name
+    final Map<String, Map<String, String>> overrides = new HashMap<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "gateway-url" -> options.gatewayUrl = value;
+                case "arrival-rate" -> options.arrivalRate = Double.parseDouble(value);
+                case "arrivals" -> options.poissonArrivals = switch (value) {
+                    case "poisson" -> true;
+                    case "constant" -> false;
+                    default -> throw new IllegalArgumentException("arrivals must be poisson or constant");
+                };
+                case "warmup" -> options.warmup = duration(value);
+                case "duration" -> options.duration = duration(value);
+                case "think-time" -> options.thinkTime = duration(value);
+                case "request-timeout" -> options.requestTimeout = duration(value);
+                case "max-sessions" -> options.maxSessions = Integer.parseInt(value);
+                case "products" -> options.products = Integer.parseInt(value);
+                case "clients" -> options.clients = Integer.parseInt(value);
+                case "output-dir" -> options.outputDir = Path.of(value);
+                case "max-p99-ms" -> options.maxP99Millis = Double.parseDouble(value);
+                case "max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+                case "min-throughput" -> options.minThroughput = Double.parseDouble(value);
+                // --override=api-gateway:some.property=value
+                case "override" -> {
+                    int colon = value.indexOf(':');
+                    int equals = value.indexOf('=', colon);
+                    if (colon < 0 || equals < 0) {
+                        throw new IllegalArgumentException("Expected --override=<app>:<property>=<value> but got " + arg);
+                    }
+                    options.overrides.computeIfAbsent(value.substring(0, colon), app -> new LinkedHashMap<>())
+                            .put(value.substring(colon + 1, equals), value.substring(equals + 1));
+                }
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.arrivalRate <= 0) {
+            throw new IllegalArgumentException("arrival-rate must be positive");
+        }
+        return options;
+    }
+
+    Map<String, String> overridesFor(String application) {
+        return overrides.getOrDefault(application, Map.of());
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration " + value);
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.apigateway.ApiGatewayApplication;
+import com.ecommerce.inventory.InventoryServiceApplication;
+import com.ecommerce.payment.PaymentServiceApplication;
+import com.ecommerce.product.ProductServiceApplication;
+import com.ecommerce.shipping.ShippingServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the real applications in this JVM against local stand-ins: an embedded KRaft Kafka
+ * broker and one in-memory H2 database per service in MariaDB compatibility mode. Every
+ * application listens on a random port; the gateway is routed to the services' ports.
+ */
+final class LocalStack implements AutoCloseable {
+
+    private static final String[] TOPICS = {"payment-events", "shipping-events", "product-cache-invalidation"};
+
+    // Auto-configurations that only the services need and the gateway must not start
+    private static final String GATEWAY_EXCLUDES = String.join(",",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration");
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final List<ConfigurableApplicationContext> applications = new ArrayList<>();
+    private String gatewayUrl;
+
+    private LocalStack() {
+        kafka = new EmbeddedKafkaKraftBroker(1, 3, TOPICS);
+    }
+
+    static LocalStack start(LoadTestOptions options) {
+        LocalStack stack = new LocalStack();
+        try {
+            stack.kafka.afterPropertiesSet();
+            int productPort = stack.startService("product-service", ProductServiceApplication.class,
+                    "application.yml", "productdb", options);
+            int paymentPort = stack.startService("payment-service", PaymentServiceApplication.class,
+                    "application.properties", "paymentdb", options);
+            int inventoryPort = stack.startService("inventory-service", InventoryServiceApplication.class,
+                    "application.properties", "inventorydb", options);
+            int shippingPort = stack.startService("shipping-service", ShippingServiceApplication.class,
+                    "application.properties", "shippingdb", options);
+
+            Map<String, Object> gateway = new LinkedHashMap<>();
+            gateway.put("spring.cloud.gateway.routes[0].uri", "http://localhost:" + productPort);
+            gateway.put("spring.cloud.gateway.routes[1].uri", "http://localhost:" + paymentPort);
+            gateway.put("spring.cloud.gateway.routes[2].uri", "http://localhost:" + inventoryPort);
+            gateway.put("spring.cloud.gateway.routes[3].uri", "http://localhost:" + shippingPort);
+            gateway.put("gateway.rate-limit.store", "memory");
+            // The gateway only rate limits registered API keys per client
+            gateway.put("gateway.client-identity.api-keys", registeredApiKeys(options.clients));
+            gateway.put("spring.autoconfigure.exclude", GATEWAY_EXCLUDES);
+            int gatewayPort = stack.startApplication("api-gateway", ApiGatewayApplication.class, "application.properties",
+                    WebApplicationType.REACTIVE, gateway, options);
+            stack.gatewayUrl = "http://localhost:" + gatewayPort;
+            return stack;
+        } catch (RuntimeException e) {
+            stack.close();
+            throw e;
+        }
+    }
+
+    String gatewayUrl() {
+        return gatewayUrl;
+    }
+
+    private static String registeredApiKeys(int clients) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            List<String> entries = new ArrayList<>(clients);
+            for (int n = 0; n < clients; n++) {
+                String key = CheckoutScenario.clientKey(n);
+                entries.add(key + ":" + HexFormat.of().formatHex(sha256.digest(key.getBytes(StandardCharsets.UTF_8))));
+            }
+            return String.join(",", entries);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private int startService(String name, Class<?> applicationClass, String configFile, String database,
+                             LoadTestOptions options) {
+        Map<String, Object> service = new LinkedHashMap<>();
+        service.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        service.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        service.put("spring.datasource.username", "sa");
+        service.put("spring.datasource.password", "");
+        service.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        service.put("spring.jpa.hibernate.ddl-auto", "update");
+        service.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        // The gateway jar is on this classpath too; its auto-configuration refuses to run next to Spring MVC
+        service.put("spring.cloud.gateway.enabled", "false");
+        return startApplication(name, applicationClass, configFile, WebApplicationType.SERVLET, service, options);
+    }
+
+    private int startApplication(String name, Class<?> applicationClass, String configFile, WebApplicationType type,
+                                 Map<String, Object> standIns, LoadTestOptions options) {
+        Map<String, Object> properties = ServiceProperties.load(applicationClass, configFile);
+        properties.putAll(standIns);
+        properties.put("server.port", "0");
+        // Keeps Boot from also loading the first application.properties it finds on the shared classpath
+        properties.put("spring.config.name", name + "-load-test");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.ecommerce", "WARN");
+        properties.put("management.health.redis.enabled", "false");
+        properties.putAll(options.overridesFor(name));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(applicationClass)
+                .web(type)
+                .properties(properties)
+                .run();
+        applications.add(context);
+        int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+        System.out.printf("Started %s on port %d%n", name, port);
+        return port;
+    }
+
+    @Override
+    public void close() {
+        // Gateway first, then services in reverse start order, then the broker
+        for (int i = applications.size() - 1; i >= 0; i--) {
+            applications.get(i).close();
+        }
+        kafka.destroy();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms for one route, in microseconds. {@code responseTime} is measured from
+ * when the request should have been sent by the arrival schedule, so time spent waiting
+ * behind a slow system is counted (no coordinated omission); {@code serviceTime} is measured
+ * from when it was actually sent.
+ */
+final class RouteStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final String route;
+    final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    final LongAdder errors = new LongAdder();
+    // Status 0 stands for a transport failure or timeout
+    final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    void record(long intendedStartNanos, long sentNanos, long completedNanos, int status) {
+        responseTime.recordValue(micros(completedNanos - intendedStartNanos));
+        serviceTime.recordValue(micros(completedNanos - sentNanos));
+        statusCounts.computeIfAbsent(status, code -> new LongAdder()).increment();
+        if (status == 0 || status >= 400) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        return responseTime.getTotalCount();
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.loadtest;
+
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads an application's own {@code application.properties}/{@code .yml}. All applications
+ * share one classpath here, so {@code classpath:application.properties} would resolve to
+ * whichever jar comes first; the file is loaded from the jar (or classes directory) that
+ * holds the application class instead.
+ */
+final class ServiceProperties {
+
+    private ServiceProperties() {
+    }
+
+    static Map<String, Object> load(Class<?> applicationClass, String fileName) {
+        try {
+            URL location = applicationClass.getProtectionDomain().getCodeSource().getLocation();
+            Resource resource = location.getPath().endsWith(".jar")
+                    ? new UrlResource("jar:" + location + "!/" + fileName)
+                    : new UrlResource(new URL(location, fileName));
+
+            Properties properties;
+            if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+                YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+                yaml.setResources(resource);
+                properties = yaml.getObject();
+            } else {
+                properties = PropertiesLoaderUtils.loadProperties(resource);
+            }
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            properties.forEach((key, value) -> values.put(key.toString(), value));
+            return values;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + fileName + " of " + applicationClass.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.outbox;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Adds the outbox tables, repositories, {@link OutboxService} and {@link OutboxRelay} to a
+ * service. The package is registered for entity and repository scanning before JPA is
+ * configured, so services need no scan settings of their own.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@AutoConfigurationPackage
+@Import({OutboxService.class, OutboxRelay.class})
+public class OutboxAutoConfiguration {
+}
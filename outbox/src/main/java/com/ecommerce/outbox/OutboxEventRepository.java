@@ -0,0 +1,35 @@
+package com.ecommerce.outbox;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Lock timeout -2 is Hibernate's SKIP LOCKED, so concurrent relays claim disjoint rows.
+    // Only the oldest unsent row of each key is claimable, so a row whose send failed holds
+    // back the later rows of its key until it has been published.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE (e.claimedUntil IS NULL OR e.claimedUntil < :now) "
+            + "AND (e.eventKey IS NULL OR NOT EXISTS (SELECT o.id FROM OutboxEvent o "
+            + "WHERE o.topic = e.topic AND o.eventKey = e.eventKey AND o.id < e.id)) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedBy = :relayId, e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("relayId") String relayId,
+              @Param("claimedUntil") LocalDateTime claimedUntil);
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.outbox;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox to Kafka in batches. Rows are claimed with SKIP LOCKED plus a
+ * lease, so several replicas can relay concurrently; a row whose send failed stays
+ * claimed until the lease expires and is then picked up again (at-least-once).
+ * A batch holds at most one row per event key, and later rows of that key wait until
+ * it is published, so per-key order survives failed sends.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelayOffsetRepository outboxRelayOffsetRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String relayId;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final long claimTtlMs;
+    private final long sendTimeoutMs;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxRelayOffsetRepository outboxRelayOffsetRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.id:}") String relayId,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                       @Value("${outbox.relay.claim-ttl-ms:30000}") long claimTtlMs,
+                       @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxRelayOffsetRepository = outboxRelayOffsetRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.relayId = relayId.isBlank() ? UUID.randomUUID().toString() : relayId;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.claimTtlMs = claimTtlMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:100}")
+    public void relay() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (relayBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Sends are pipelined; the producer's linger and compression settings group them on the wire
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getEventKey(), event.getPayload()));
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        Map<String, OutboxRelayOffset> offsets = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (int n = 0; n < batch.size(); n++) {
+            OutboxEvent event = batch.get(n);
+            try {
+                SendResult<String, byte[]> result = sends.get(n)
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                published.add(event.getId());
+                trackOffset(offsets, event, result.getRecordMetadata());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox event {} not published, retrying after claim expiry: {}", event.getId(), e.getMessage());
+            }
+        }
+
+        if (!published.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxEventRepository.deleteAllByIdInBatch(published);
+                saveOffsets(offsets);
+            });
+        }
+        return batch.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = outboxEventRepository.findClaimable(now, Limit.of(batchSize));
+        if (!batch.isEmpty()) {
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+            outboxEventRepository.claim(ids, relayId, now.plusNanos(TimeUnit.MILLISECONDS.toNanos(claimTtlMs)));
+        }
+        return batch;
+    }
+
+    private void trackOffset(Map<String, OutboxRelayOffset> offsets, OutboxEvent event, RecordMetadata metadata) {
+        String id = relayId + ":" + metadata.topic() + ":" + metadata.partition();
+        OutboxRelayOffset offset = offsets.computeIfAbsent(id, key ->
+                new OutboxRelayOffset(key, relayId, metadata.topic(), metadata.partition(), -1L, -1L, 0L, null));
+        offset.setLastOffset(Math.max(offset.getLastOffset(), metadata.offset()));
+        offset.setLastEventId(Math.max(offset.getLastEventId(), event.getId()));
+        offset.setPublishedCount(offset.getPublishedCount() + 1);
+    }
+
+    private void saveOffsets(Map<String, OutboxRelayOffset> offsets) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxRelayOffset delta : offsets.values()) {
+            OutboxRelayOffset offset = outboxRelayOffsetRepository.findById(delta.getId())
+                    .orElseGet(() -> new OutboxRelayOffset(delta.getId(), delta.getRelayId(), delta.getTopic(),
+                            delta.getKafkaPartition(), -1L, -1L, 0L, null));
+            offset.setLastOffset(Math.max(offset.getLastOffset(), delta.getLastOffset()));
+            offset.setLastEventId(Math.max(offset.getLastEventId(), delta.getLastEventId()));
+            offset.setPublishedCount(offset.getPublishedCount() + delta.getPublishedCount());
+            offset.setUpdatedAt(now);
+            outboxRelayOffsetRepository.save(offset);
+        }
+    }
+}
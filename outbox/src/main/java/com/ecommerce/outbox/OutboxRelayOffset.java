@@ -0,0 +1,29 @@
+package com.ecommerce.outbox;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_relay_offsets")
+public class OutboxRelayOffset {
+
+    @Id
+    private String id; // relayId:topic:partition
+
+    private String relayId;
+    private String topic;
+    private Integer kafkaPartition;
+    private Long lastOffset;
+    private Long lastEventId;
+    private Long publishedCount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRelayOffsetRepository extends JpaRepository<OutboxRelayOffset, String> {
+}
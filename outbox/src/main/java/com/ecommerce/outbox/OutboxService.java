@@ -0,0 +1,32 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.EventCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    public OutboxService(OutboxEventRepository outboxEventRepository) {
+        this.outboxEventRepository = outboxEventRepository;
+    }
+
+    // Must join the caller's transaction so the event commits or rolls back with the business row
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, DomainEvent payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(topic);
+        event.setEventKey(key);
+        event.setPayload(EventCodec.encode(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.payment.controller;
 
+import com.ecommerce.payment.model.PaymentBatchItemResult;
 import com.ecommerce.payment.model.PaymentRequest;
 import com.ecommerce.payment.model.PaymentResponse;
 import com.ecommerce.payment.service.PaymentService;
@@ -9,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -22,9 +24,16 @@ public class PaymentController {
     }
 
     @PostMapping
-    public ResponseEntity<PaymentResponse> processPayment(@RequestBody PaymentRequest paymentRequest) {
-        PaymentResponse response = paymentService.processPayment(paymentRequest);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> processPayment(@RequestBody PaymentRequest paymentRequest) {
+        return paymentService.processPayment(paymentRequest)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<List<PaymentBatchItemResult>>> processPayments(
+            @RequestBody List<PaymentRequest> paymentRequests) {
+        return paymentService.processPayments(paymentRequests)
+                .thenApply(results -> new ResponseEntity<>(results, HttpStatus.OK));
     }
 
     @GetMapping("/{id}")
@@ -40,8 +49,8 @@ public class PaymentController {
     }
 
     @PostMapping("/{id}/refund")
-    public ResponseEntity<PaymentResponse> refundPayment(@PathVariable Long id) {
-        PaymentResponse response = paymentService.refundPayment(id);
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<PaymentResponse>> refundPayment(@PathVariable Long id) {
+        return paymentService.refundPayment(id)
+                .thenApply(response -> new ResponseEntity<>(response, HttpStatus.OK));
     }
 } 
\ No newline at end of file
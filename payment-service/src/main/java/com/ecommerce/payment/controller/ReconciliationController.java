@@ -0,0 +1,46 @@
+package com.ecommerce.payment.controller;
+
+import com.ecommerce.payment.reconciliation.ReconciliationJob;
+import com.ecommerce.payment.reconciliation.ReconciliationRequest;
+import com.ecommerce.payment.service.ReconciliationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/payments/reconciliations")
+public class ReconciliationController {
+
+    private final ReconciliationService reconciliationService;
+
+    @Autowired
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ReconciliationJob> startReconciliation(@RequestBody ReconciliationRequest request) {
+        try {
+            return new ResponseEntity<>(reconciliationService.startReconciliation(request), HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReconciliationJob> getReconciliation(@PathVariable Long id) {
+        ReconciliationJob job = reconciliationService.getReconciliation(id);
+        return job == null ? ResponseEntity.notFound().build() : new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ReconciliationJob> resumeReconciliation(@PathVariable Long id) {
+        try {
+            ReconciliationJob job = reconciliationService.resumeReconciliation(id);
+            return job == null ? ResponseEntity.notFound().build() : new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
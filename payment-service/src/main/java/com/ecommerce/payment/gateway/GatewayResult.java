@@ -0,0 +1,22 @@
+package com.ecommerce.payment.gateway;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GatewayResult {
+    private boolean approved;
+    private String transactionId;
+    private String message;
+
+    public static GatewayResult approved(String transactionId) {
+        return new GatewayResult(true, transactionId, "Approved");
+    }
+
+    public static GatewayResult declined(String message) {
+        return new GatewayResult(false, null, message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.payment.gateway;
+
+import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client for the external payment gateway. Implementations must not block the
+ * calling thread: the returned future completes once the gateway has answered.
+ */
+public interface PaymentGatewayClient {
+    CompletableFuture<GatewayResult> charge(PaymentRequest paymentRequest);
+    CompletableFuture<GatewayResult> refund(Payment payment);
+}
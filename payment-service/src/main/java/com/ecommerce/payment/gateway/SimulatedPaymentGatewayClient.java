@@ -0,0 +1,93 @@
+package com.ecommerce.payment.gateway;
+
+import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentRequest;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the payment gateway. Answers are scheduled on a timer
+ * instead of sleeping, so no thread is held while a call is "in flight".
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.client", havingValue = "simulator", matchIfMissing = true)
+public class SimulatedPaymentGatewayClient implements PaymentGatewayClient {
+
+    private final long latencyMs;
+    private final long latencyJitterMs;
+    private final long tailLatencyMs;
+    private final double tailProbability;
+    private final double declineRate;
+    private final double errorRate;
+    private final ScheduledExecutorService scheduler;
+
+    public SimulatedPaymentGatewayClient(
+            @Value("${payment.gateway.simulator.latency-ms:500}") long latencyMs,
+            @Value("${payment.gateway.simulator.latency-jitter-ms:100}") long latencyJitterMs,
+            @Value("${payment.gateway.simulator.tail-latency-ms:2500}") long tailLatencyMs,
+            @Value("${payment.gateway.simulator.tail-probability:0.0}") double tailProbability,
+            @Value("${payment.gateway.simulator.decline-rate:0.0}") double declineRate,
+            @Value("${payment.gateway.simulator.error-rate:0.0}") double errorRate) {
+        this.latencyMs = latencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.tailLatencyMs = tailLatencyMs;
+        this.tailProbability = tailProbability;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(PaymentRequest paymentRequest) {
+        return respond("Payment declined by gateway");
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> refund(Payment payment) {
+        return respond("Refund declined by gateway");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private CompletableFuture<GatewayResult> respond(String declineMessage) {
+        CompletableFuture<GatewayResult> future = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double outcome = random.nextDouble();
+
+        scheduler.schedule(() -> {
+            if (outcome < errorRate) {
+                future.completeExceptionally(new IllegalStateException("Payment gateway unavailable"));
+            } else if (outcome < errorRate + declineRate) {
+                future.complete(GatewayResult.declined(declineMessage));
+            } else {
+                future.complete(GatewayResult.approved(UUID.randomUUID().toString()));
+            }
+        }, nextLatencyMs(random), TimeUnit.MILLISECONDS);
+
+        return future;
+    }
+
+    private long nextLatencyMs(ThreadLocalRandom random) {
+        if (tailProbability > 0 && random.nextDouble() < tailProbability) {
+            return tailLatencyMs;
+        }
+        long jitter = latencyJitterMs > 0 ? random.nextLong(-latencyJitterMs, latencyJitterMs + 1) : 0;
+        return Math.max(0, latencyMs + jitter);
+    }
+}
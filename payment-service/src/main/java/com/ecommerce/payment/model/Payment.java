@@ -1,9 +1,12 @@
 package com.ecommerce.payment.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,13 +19,18 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "payments")
+// (status, paymentDate, id) serves the keyset-chunked reconciliation scan
+@Table(name = "payments", indexes = @Index(name = "idx_payments_status_payment_date", columnList = "status, paymentDate, id"))
 public class Payment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
     
+    @Column(unique = true, length = 64)
+    private String idempotencyKey;
+    
     private Long orderId;
     private BigDecimal amount;
     private String paymentMethod; // CREDIT_CARD, PAYPAL, etc.
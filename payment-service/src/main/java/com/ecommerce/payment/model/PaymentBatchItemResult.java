@@ -0,0 +1,14 @@
+package com.ecommerce.payment.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentBatchItemResult {
+    private String idempotencyKey;
+    private PaymentBatchOutcome outcome;
+    private PaymentResponse payment;
+}
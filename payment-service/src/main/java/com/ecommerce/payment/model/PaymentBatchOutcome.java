@@ -0,0 +1,7 @@
+package com.ecommerce.payment.model;
+
+public enum PaymentBatchOutcome {
+    CREATED,
+    DUPLICATE,
+    REJECTED
+}
@@ -14,4 +14,5 @@ public class PaymentRequest {
     private BigDecimal amount;
     private String paymentMethod;
     private String paymentDetails; // Could contain credit card info, PayPal token, etc.
+    private String idempotencyKey; // Client-supplied, required for batch submissions
 } 
\ No newline at end of file
@@ -4,5 +4,6 @@ public enum PaymentStatus {
     PENDING,
     COMPLETED,
     FAILED,
-    REFUNDED
+    REFUNDED,
+    REFUNDING // appended: statuses are stored by ordinal
 } 
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.ecommerce.payment.reconciliation;
+
+public enum MismatchType {
+    MISSING_TRANSACTION_ID, // payment in a settled status without a gateway transaction id
+    MISSING_IN_SETTLEMENT,  // payment whose transaction the gateway did not settle
+    AMOUNT_MISMATCH,        // settled for a different amount than recorded
+    UNMATCHED_SETTLEMENT    // settled transaction without a payment in the job's range
+}
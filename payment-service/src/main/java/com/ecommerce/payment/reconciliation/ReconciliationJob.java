@@ -0,0 +1,55 @@
+package com.ecommerce.payment.reconciliation;
+
+import com.ecommerce.payment.model.PaymentStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reconciliation_jobs")
+public class ReconciliationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private ReconciliationJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus paymentStatus;
+
+    private LocalDateTime fromDate; // inclusive
+    private LocalDateTime toDate; // exclusive
+    private String settlementFile; // relative to payment.reconciliation.settlement-dir
+    private String reportDirectory;
+
+    // Checkpoint: every payment up to (lastPaymentDate, lastPaymentId) is reconciled and reported
+    private LocalDateTime lastPaymentDate;
+    private Long lastPaymentId;
+    private Long chunkCount;
+    private Long processedCount;
+    private Long mismatchCount;
+    private Long unmatchedSettlementCount; // set once all payments are reconciled
+
+    // Lease of the runner working on the job; another instance takes over only once it has expired
+    private String owner;
+    private LocalDateTime leaseUntil;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
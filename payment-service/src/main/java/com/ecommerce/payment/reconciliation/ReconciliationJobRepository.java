@@ -0,0 +1,33 @@
+package com.ecommerce.payment.reconciliation;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationJobRepository extends JpaRepository<ReconciliationJob, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ReconciliationJob j WHERE j.id = :id")
+    Optional<ReconciliationJob> findByIdForUpdate(@Param("id") Long id);
+
+    // Succeeds for an unfinished job nobody holds a live lease on
+    @Modifying
+    @Query("UPDATE ReconciliationJob j SET j.status = com.ecommerce.payment.reconciliation.ReconciliationJobStatus.RUNNING, "
+            + "j.owner = :owner, j.leaseUntil = :leaseUntil, j.error = NULL, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status <> com.ecommerce.payment.reconciliation.ReconciliationJobStatus.COMPLETED "
+            + "AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int claim(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ReconciliationJob j SET j.leaseUntil = :leaseUntil WHERE j.id = :id AND j.owner = :owner")
+    int renew(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
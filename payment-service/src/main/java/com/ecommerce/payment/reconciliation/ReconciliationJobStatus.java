@@ -0,0 +1,7 @@
+package com.ecommerce.payment.reconciliation;
+
+public enum ReconciliationJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
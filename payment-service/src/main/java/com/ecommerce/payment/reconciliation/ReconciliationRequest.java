@@ -0,0 +1,18 @@
+package com.ecommerce.payment.reconciliation;
+
+import com.ecommerce.payment.model.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRequest {
+    private PaymentStatus paymentStatus; // COMPLETED (default) or REFUNDED
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String settlementFile; // file name inside payment.reconciliation.settlement-dir
+}
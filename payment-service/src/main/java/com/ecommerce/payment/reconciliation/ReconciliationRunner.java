@@ -0,0 +1,363 @@
+package com.ecommerce.payment.reconciliation;
+
+import com.ecommerce.payment.repository.PaymentRepository;
+import com.ecommerce.payment.repository.ReconciliationRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs reconciliation jobs. A reader thread streams the job's payments in keyset-ordered
+ * chunks and hands each chunk to a fork-join pool, which matches it against the settlement
+ * index and writes the chunk's mismatch report. At most max-chunks-in-flight chunks are held
+ * at once, so memory stays fixed however many payments there are.
+ *
+ * Chunks complete out of order but are checkpointed in order: the job row records the last
+ * payment of the newest chunk whose predecessors have all finished, and a resumed job reads
+ * on from there. Reports of chunks past the checkpoint are deleted and written again.
+ *
+ * A runner holds a lease on its job row, renewed every heartbeat-ms. Another instance takes the
+ * job over only once the lease has expired, and a runner whose lease has run out stops before
+ * writing anything more, so two runners never work on one report directory.
+ */
+@Component
+public class ReconciliationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationRunner.class);
+
+    static final String INDEX_FILE = "settlement.idx";
+    static final String UNMATCHED_REPORT = "unmatched-settlements.csv";
+    private static final String REPORT_HEADER = "type,paymentId,transactionId,amount,settledAmount";
+
+    private final PaymentRepository paymentRepository;
+    private final ReconciliationJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path settlementDirectory;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxChunksInFlight;
+    private final long leaseTtlMs;
+    private final String owner;
+    // Jobs running here, with the time their lease runs until as last confirmed by the database
+    private final Map<Long, LocalDateTime> leases = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReconciliationRunner(PaymentRepository paymentRepository, ReconciliationJobRepository jobRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${payment.reconciliation.settlement-dir:settlements}") String settlementDirectory,
+                                @Value("${payment.reconciliation.chunk-size:10000}") int chunkSize,
+                                @Value("${payment.reconciliation.parallelism:0}") int parallelism,
+                                @Value("${payment.reconciliation.max-chunks-in-flight:0}") int maxChunksInFlight,
+                                @Value("${payment.reconciliation.lease-ttl-ms:60000}") long leaseTtlMs) {
+        this.paymentRepository = paymentRepository;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.leaseTtlMs = leaseTtlMs;
+        this.owner = System.getenv().getOrDefault("HOSTNAME", "localhost") + "-" + UUID.randomUUID();
+        this.settlementDirectory = Paths.get(settlementDirectory).toAbsolutePath().normalize();
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxChunksInFlight = maxChunksInFlight > 0 ? maxChunksInFlight : this.parallelism * 2;
+    }
+
+    /**
+     * Resolves a settlement file name inside the settlement directory, rejecting anything outside it.
+     */
+    public Path settlementPath(String settlementFile) {
+        Path path = settlementDirectory.resolve(settlementFile).normalize();
+        if (!path.startsWith(settlementDirectory) || !Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("Unknown settlement file: " + settlementFile);
+        }
+        return path;
+    }
+
+    /**
+     * Leases the job and runs it on a thread of its own. Returns false when the job is completed
+     * or a runner, here or on another instance, holds a lease on it that has not expired.
+     * Synchronized with the heartbeat, which would otherwise see the job before its claim commits.
+     */
+    public synchronized boolean start(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusNanos(leaseTtlMs * 1_000_000L);
+        if (leases.putIfAbsent(jobId, leaseUntil) != null) {
+            return false;
+        }
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.claim(jobId, owner, leaseUntil, now));
+        if (claimed == null || claimed == 0) {
+            leases.remove(jobId);
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                run(jobId);
+            } finally {
+                leases.remove(jobId);
+            }
+        }, "reconciliation-" + jobId);
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.heartbeat-ms:15000}")
+    public synchronized void renewLeases() {
+        for (Long jobId : leases.keySet()) {
+            LocalDateTime leaseUntil = LocalDateTime.now().plusNanos(leaseTtlMs * 1_000_000L);
+            try {
+                Integer renewed = transactionTemplate.execute(status -> jobRepository.renew(jobId, owner, leaseUntil));
+                if (renewed != null && renewed == 1) {
+                    leases.computeIfPresent(jobId, (id, current) -> leaseUntil);
+                } else {
+                    // Taken over after a missed heartbeat: the runner stops at its next check
+                    leases.computeIfPresent(jobId, (id, current) -> LocalDateTime.MIN);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not renew the lease on reconciliation job {}; it stays valid until {}",
+                        jobId, leases.get(jobId), e);
+            }
+        }
+    }
+
+    private void run(Long jobId) {
+        ReconciliationJob job = jobRepository.findById(jobId).orElseThrow();
+        Path reportDirectory = Paths.get(job.getReportDirectory());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Files.createDirectories(reportDirectory);
+            deleteTemporaryFiles(reportDirectory);
+            deleteReportsAfterCheckpoint(reportDirectory, job.getChunkCount());
+
+            try (SettlementIndex index = SettlementIndex.open(settlementPath(job.getSettlementFile()),
+                    reportDirectory.resolve(INDEX_FILE))) {
+                Deque<Chunk> inFlight = new ArrayDeque<>();
+                LocalDateTime afterDate = job.getLastPaymentDate();
+                long afterId = job.getLastPaymentId();
+                long chunkNumber = job.getChunkCount();
+                List<ReconciliationRow> rows;
+                do {
+                    rows = paymentRepository.findForReconciliation(job.getPaymentStatus(), job.getToDate(),
+                            afterDate, afterId, Limit.of(chunkSize));
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+                    checkLease(jobId);
+                    ReconciliationRow last = rows.get(rows.size() - 1);
+                    List<ReconciliationRow> chunkRows = rows;
+                    Path report = reportDirectory.resolve(reportName(chunkNumber++));
+                    inFlight.addLast(new Chunk(last.getPaymentDate(), last.getId(), rows.size(),
+                            pool.submit(() -> reconcile(chunkRows, index, report))));
+                    afterDate = last.getPaymentDate();
+                    afterId = last.getId();
+                    commitCompleted(job, index, inFlight, inFlight.size() >= maxChunksInFlight);
+                } while (rows.size() == chunkSize);
+                while (!inFlight.isEmpty()) {
+                    commitCompleted(job, index, inFlight, true);
+                }
+
+                // Every payment has been matched now, so what is left in the index has no payment
+                checkLease(jobId);
+                job.setUnmatchedSettlementCount(writeUnmatched(index, reportDirectory.resolve(UNMATCHED_REPORT)));
+            }
+            Files.deleteIfExists(reportDirectory.resolve(INDEX_FILE));
+            job.setStatus(ReconciliationJobStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            log.info("Reconciliation job {} completed: {} payments, {} mismatches, {} unmatched settlements",
+                    jobId, job.getProcessedCount(), job.getMismatchCount(), job.getUnmatchedSettlementCount());
+        } catch (LeaseLostException e) {
+            log.warn("Reconciliation job {} stopped at payment {}: {}", jobId, job.getLastPaymentId(), e.getMessage());
+            return;
+        } catch (Exception e) {
+            log.error("Reconciliation job {} failed at payment {}", jobId, job.getLastPaymentId(), e);
+            job.setStatus(ReconciliationJobStatus.FAILED);
+            job.setError(e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+        job.setOwner(null);
+        job.setLeaseUntil(null);
+        job.setUpdatedAt(LocalDateTime.now());
+        try {
+            saveIfOwner(job);
+        } catch (LeaseLostException e) {
+            log.warn("Reconciliation job {} finished after losing its lease; the new runner's result stands", jobId);
+        }
+    }
+
+    private void checkLease(Long jobId) {
+        LocalDateTime leaseUntil = leases.get(jobId);
+        if (leaseUntil == null || !LocalDateTime.now().isBefore(leaseUntil)) {
+            throw new LeaseLostException("the lease on job " + jobId + " has expired");
+        }
+    }
+
+    // Writes the job row only while this runner still owns it; a finished job is saved with its lease cleared
+    private void saveIfOwner(ReconciliationJob job) {
+        transactionTemplate.executeWithoutResult(status -> {
+            ReconciliationJob current = jobRepository.findByIdForUpdate(job.getId()).orElseThrow();
+            if (!owner.equals(current.getOwner())) {
+                throw new LeaseLostException("job " + job.getId() + " is leased by " + current.getOwner());
+            }
+            if (job.getOwner() != null) {
+                job.setLeaseUntil(current.getLeaseUntil());
+            }
+            jobRepository.save(job);
+        });
+    }
+
+    // Advances the checkpoint over finished chunks at the head; optionally waits for the oldest one first
+    private void commitCompleted(ReconciliationJob job, SettlementIndex index, Deque<Chunk> inFlight, boolean waitForOldest) {
+        boolean committed = false;
+        while (!inFlight.isEmpty() && (waitForOldest || inFlight.peekFirst().mismatches().isDone())) {
+            Chunk chunk = inFlight.pollFirst();
+            long mismatches = chunk.mismatches().join();
+            job.setLastPaymentDate(chunk.lastPaymentDate());
+            job.setLastPaymentId(chunk.lastPaymentId());
+            job.setChunkCount(job.getChunkCount() + 1);
+            job.setProcessedCount(job.getProcessedCount() + chunk.size());
+            job.setMismatchCount(job.getMismatchCount() + mismatches);
+            waitForOldest = false;
+            committed = true;
+        }
+        if (committed) {
+            checkLease(job.getId());
+            // The matched flags of the checkpointed chunks go to disk before the checkpoint that relies on them
+            index.force();
+            job.setUpdatedAt(LocalDateTime.now());
+            saveIfOwner(job);
+        }
+    }
+
+    private static long reconcile(List<ReconciliationRow> rows, SettlementIndex index, Path report) {
+        List<String> lines = new ArrayList<>();
+        for (ReconciliationRow row : rows) {
+            if (row.getTransactionId() == null) {
+                lines.add(reportLine(MismatchType.MISSING_TRANSACTION_ID, row.getId(), null, row.getAmount(), null));
+                continue;
+            }
+            long slot = index.find(row.getTransactionId());
+            if (slot < 0) {
+                lines.add(reportLine(MismatchType.MISSING_IN_SETTLEMENT, row.getId(), row.getTransactionId(),
+                        row.getAmount(), null));
+                continue;
+            }
+            index.markMatched(slot);
+            BigDecimal settled = index.amountAt(slot);
+            if (row.getAmount() == null || settled == null || row.getAmount().compareTo(settled) != 0) {
+                lines.add(reportLine(MismatchType.AMOUNT_MISMATCH, row.getId(), row.getTransactionId(),
+                        row.getAmount(), settled));
+            }
+        }
+        if (!lines.isEmpty()) {
+            writeReport(report, lines);
+        }
+        return lines.size();
+    }
+
+    private static long writeUnmatched(SettlementIndex index, Path report) throws IOException {
+        Path temporary = temporaryFor(report);
+        long[] count = {0};
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write(REPORT_HEADER);
+            writer.newLine();
+            index.forEachUnmatched((transactionId, amount) -> {
+                try {
+                    writer.write(reportLine(MismatchType.UNMATCHED_SETTLEMENT, null, transactionId, null, amount));
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        }
+        Files.move(temporary, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count[0];
+    }
+
+    // Written under a temporary name and moved into place, so a report is either complete or absent
+    private static void writeReport(Path report, List<String> lines) {
+        try {
+            Path temporary = temporaryFor(report);
+            List<String> content = new ArrayList<>(lines.size() + 1);
+            content.add(REPORT_HEADER);
+            content.addAll(lines);
+            Files.write(temporary, content, StandardCharsets.UTF_8);
+            Files.move(temporary, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Unique per writer, so a runner that has not noticed its lost lease yet cannot interleave with the next one
+    private static Path temporaryFor(Path file) throws IOException {
+        return Files.createTempFile(file.getParent(), file.getFileName() + ".", ".tmp");
+    }
+
+    // Left behind by a runner that stopped; only called with the lease held
+    private static void deleteTemporaryFiles(Path reportDirectory) throws IOException {
+        try (DirectoryStream<Path> temporaries = Files.newDirectoryStream(reportDirectory, "*.tmp")) {
+            for (Path temporary : temporaries) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    private static void deleteReportsAfterCheckpoint(Path reportDirectory, long committedChunks) throws IOException {
+        try (DirectoryStream<Path> reports = Files.newDirectoryStream(reportDirectory, "mismatches-*.csv*")) {
+            for (Path report : reports) {
+                String name = report.getFileName().toString();
+                long chunkNumber = Long.parseLong(name.substring("mismatches-".length(), name.indexOf('.')));
+                if (chunkNumber >= committedChunks) {
+                    Files.delete(report);
+                }
+            }
+        }
+    }
+
+    static String reportName(long chunkNumber) {
+        return String.format("mismatches-%08d.csv", chunkNumber);
+    }
+
+    private static String reportLine(MismatchType type, Long paymentId, String transactionId,
+                                     BigDecimal amount, BigDecimal settledAmount) {
+        return type + "," + (paymentId == null ? "" : paymentId) + "," + (transactionId == null ? "" : transactionId)
+                + "," + (amount == null ? "" : amount.toPlainString())
+                + "," + (settledAmount == null ? "" : settledAmount.toPlainString());
+    }
+
+    private static final class LeaseLostException extends IllegalStateException {
+
+        LeaseLostException(String message) {
+            super(message);
+        }
+    }
+
+    private record Chunk(LocalDateTime lastPaymentDate, long lastPaymentId, int size, ForkJoinTask<Long> mismatches) {
+    }
+}
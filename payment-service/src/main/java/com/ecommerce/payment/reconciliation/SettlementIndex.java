@@ -0,0 +1,312 @@
+package com.ecommerce.payment.reconciliation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Off-heap hash index over a gateway settlement file with one "transactionId,amount" line per
+ * settled transaction (lines that do not match, such as a header, are ignored).
+ *
+ * The settlement file and the index are both memory mapped, so heap use does not grow with
+ * the file. The index is an open-addressing table of 8-byte slots, each holding the offset of
+ * its line plus one (0 marks an empty slot) and a matched flag in the top bit. The flag is set
+ * with CAS, so chunks can be matched concurrently, and it lives in the index file, so a resumed
+ * job keeps the matches made before the restart.
+ */
+public class SettlementIndex implements Closeable {
+
+    private static final long MAGIC = 0x5345544c49445831L; // "SETLIDX1"
+    private static final int HEADER_BYTES = 16; // magic, capacity
+    private static final long MATCHED = 1L << 63;
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final MappedRegion settlement;
+    private final MappedRegion index;
+    private final long mask;
+
+    private SettlementIndex(MappedRegion settlement, MappedRegion index, long capacity) {
+        this.settlement = settlement;
+        this.index = index;
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Opens the index of a settlement file, building it first when the index file does not exist.
+     */
+    public static SettlementIndex open(Path settlementFile, Path indexFile) throws IOException {
+        MappedRegion settlement = MappedRegion.map(settlementFile, FileChannel.MapMode.READ_ONLY, -1);
+        try {
+            if (!Files.exists(indexFile)) {
+                build(settlement, indexFile);
+            }
+            MappedRegion index = MappedRegion.map(indexFile, FileChannel.MapMode.READ_WRITE, -1);
+            if (index.size() < HEADER_BYTES || index.getLong(0) != MAGIC) {
+                index.close();
+                throw new IOException("Not a settlement index: " + indexFile);
+            }
+            return new SettlementIndex(settlement, index, index.getLong(8));
+        } catch (IOException | RuntimeException e) {
+            settlement.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the slot of a transaction id, or -1 when the settlement file does not contain it.
+     */
+    public long find(String transactionId) {
+        byte[] key = transactionId.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(key);
+        for (long slot = hash & mask; ; slot = (slot + 1) & mask) {
+            long value = slotValue(slot);
+            if (value == 0) {
+                return -1;
+            }
+            if (keyEquals(settlement, (value & ~MATCHED) - 1, key)) {
+                return slot;
+            }
+        }
+    }
+
+    public BigDecimal amountAt(long slot) {
+        long lineStart = (slotValue(slot) & ~MATCHED) - 1;
+        return parseAmount(settlement, keyEnd(settlement, lineStart) + 1);
+    }
+
+    public void markMatched(long slot) {
+        long position = HEADER_BYTES + slot * 8;
+        MappedByteBuffer segment = index.segment(position);
+        int offset = index.offset(position);
+        long value = (long) LONGS.getVolatile(segment, offset);
+        while ((value & MATCHED) == 0 && !LONGS.compareAndSet(segment, offset, value, value | MATCHED)) {
+            value = (long) LONGS.getVolatile(segment, offset);
+        }
+    }
+
+    /**
+     * Writes the matched flags set so far to the index file; call it before checkpointing the
+     * payments they were set for, so a resumed job does not report those settlements as unmatched.
+     */
+    public void force() {
+        index.force();
+    }
+
+    /**
+     * Visits every settled transaction that no payment has been matched against.
+     */
+    public void forEachUnmatched(BiConsumer<String, BigDecimal> consumer) {
+        for (long slot = 0; slot <= mask; slot++) {
+            long value = slotValue(slot);
+            if (value != 0 && (value & MATCHED) == 0) {
+                long lineStart = value - 1;
+                long keyEnd = keyEnd(settlement, lineStart);
+                consumer.accept(settlement.string(lineStart, keyEnd), parseAmount(settlement, keyEnd + 1));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        index.close();
+        settlement.close();
+    }
+
+    private long slotValue(long slot) {
+        long position = HEADER_BYTES + slot * 8;
+        return (long) LONGS.getVolatile(index.segment(position), index.offset(position));
+    }
+
+    private static void build(MappedRegion settlement, Path indexFile) throws IOException {
+        long lines = 0;
+        for (long position = 0; position < settlement.size(); position = lineEnd(settlement, position) + 1) {
+            lines++;
+        }
+        // Power-of-two capacity with a load factor of at most one half
+        long capacity = Math.max(16, Long.highestOneBit(Math.max(1, lines)) << 2);
+
+        // Built under a temporary name of its own and moved into place, so a crash never leaves a partial index
+        Path temporary = Files.createTempFile(indexFile.getParent(), indexFile.getFileName() + ".", ".tmp");
+        try (MappedRegion index = MappedRegion.map(temporary, FileChannel.MapMode.READ_WRITE, HEADER_BYTES + capacity * 8)) {
+            index.putLong(0, MAGIC);
+            index.putLong(8, capacity);
+            for (long position = 0; position < settlement.size(); ) {
+                long end = lineEnd(settlement, position);
+                long keyEnd = keyEnd(settlement, position);
+                if (keyEnd > position && keyEnd < end && parseAmount(settlement, keyEnd + 1) != null) {
+                    insert(settlement, index, capacity - 1, position, keyEnd);
+                }
+                position = end + 1;
+            }
+            index.force();
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void insert(MappedRegion settlement, MappedRegion index, long mask, long lineStart, long keyEnd) {
+        byte[] key = settlement.bytes(lineStart, keyEnd);
+        for (long slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long position = HEADER_BYTES + slot * 8;
+            long value = index.getLong(position);
+            if (value == 0) {
+                index.putLong(position, lineStart + 1);
+                return;
+            }
+            // A transaction settled twice keeps its first line
+            if (keyEquals(settlement, value - 1, key)) {
+                return;
+            }
+        }
+    }
+
+    private static long lineEnd(MappedRegion region, long position) {
+        while (position < region.size() && region.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static long keyEnd(MappedRegion region, long lineStart) {
+        long position = lineStart;
+        while (position < region.size() && region.get(position) != ',' && region.get(position) != '\n') {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean keyEquals(MappedRegion region, long lineStart, byte[] key) {
+        if (lineStart + key.length >= region.size() || region.get(lineStart + key.length) != ',') {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (region.get(lineStart + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigDecimal parseAmount(MappedRegion region, long start) {
+        long end = start;
+        while (end < region.size() && region.get(end) != '\n' && region.get(end) != '\r' && region.get(end) != ',') {
+            end++;
+        }
+        try {
+            return new BigDecimal(region.string(start, end).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // FNV-1a, finished with a 64-bit avalanche so similar ids spread over the table
+    private static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * A file mapped as a sequence of 1 GiB buffers, since one buffer cannot exceed 2 GiB.
+     */
+    static final class MappedRegion implements Closeable {
+
+        private static final int SEGMENT_SHIFT = 30;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final long size;
+
+        private MappedRegion(FileChannel channel, MappedByteBuffer[] segments, long size) {
+            this.channel = channel;
+            this.segments = segments;
+            this.size = size;
+        }
+
+        // size -1 maps the file as it is; a larger size extends the file with zeros
+        static MappedRegion map(Path file, FileChannel.MapMode mode, long size) throws IOException {
+            FileChannel channel = mode == FileChannel.MapMode.READ_ONLY
+                    ? FileChannel.open(file, StandardOpenOption.READ)
+                    : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            try {
+                long length = size < 0 ? channel.size() : size;
+                int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+                MappedByteBuffer[] segments = new MappedByteBuffer[count];
+                for (int i = 0; i < count; i++) {
+                    long start = (long) i << SEGMENT_SHIFT;
+                    segments[i] = channel.map(mode, start, Math.min(SEGMENT_MASK + 1, length - start));
+                }
+                return new MappedRegion(channel, segments, length);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        MappedByteBuffer segment(long position) {
+            return segments[(int) (position >>> SEGMENT_SHIFT)];
+        }
+
+        int offset(long position) {
+            return (int) (position & SEGMENT_MASK);
+        }
+
+        byte get(long position) {
+            return segment(position).get(offset(position));
+        }
+
+        long getLong(long position) {
+            return (long) LONGS.get(segment(position), offset(position));
+        }
+
+        void putLong(long position, long value) {
+            LONGS.set(segment(position), offset(position), value);
+        }
+
+        byte[] bytes(long start, long end) {
+            byte[] bytes = new byte[(int) (end - start)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = get(start + i);
+            }
+            return bytes;
+        }
+
+        String string(long start, long end) {
+            return new String(bytes(start, end), StandardCharsets.UTF_8);
+        }
+
+        void force() {
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -2,13 +2,34 @@ package com.ecommerce.payment.repository;
 
 import com.ecommerce.payment.model.Payment;
 import com.ecommerce.payment.model.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByOrderId(Long orderId);
     List<Payment> findByStatus(PaymentStatus status);
+    List<Payment> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    // Conditional status change; returns 0 when the payment is no longer in the expected status
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :to WHERE p.id = :id AND p.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") PaymentStatus from, @Param("to") PaymentStatus to);
+
+    // Keyset chunks after a (paymentDate, id) cursor, served by the (status, paymentDate, id) index
+    @Query("SELECT p.id AS id, p.paymentDate AS paymentDate, p.transactionId AS transactionId, p.amount AS amount "
+            + "FROM Payment p WHERE p.status = :status AND p.paymentDate < :to "
+            + "AND (p.paymentDate > :afterDate OR (p.paymentDate = :afterDate AND p.id > :afterId)) "
+            + "ORDER BY p.paymentDate, p.id")
+    List<ReconciliationRow> findForReconciliation(@Param("status") PaymentStatus status, @Param("to") LocalDateTime to,
+                                                  @Param("afterDate") LocalDateTime afterDate,
+                                                  @Param("afterId") Long afterId, Limit limit);
 } 
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.ecommerce.payment.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The payment columns reconciliation needs, read without materializing entities.
+ */
+public interface ReconciliationRow {
+    Long getId();
+    LocalDateTime getPaymentDate();
+    String getTransactionId();
+    BigDecimal getAmount();
+}
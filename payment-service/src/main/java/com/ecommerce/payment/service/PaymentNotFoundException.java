@@ -0,0 +1,12 @@
+package com.ecommerce.payment.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class PaymentNotFoundException extends RuntimeException {
+
+    public PaymentNotFoundException(Long paymentId) {
+        super("Payment not found with ID: " + paymentId);
+    }
+}
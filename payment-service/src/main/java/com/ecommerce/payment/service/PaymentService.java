@@ -1,14 +1,17 @@
 package com.ecommerce.payment.service;
 
 import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentBatchItemResult;
 import com.ecommerce.payment.model.PaymentRequest;
 import com.ecommerce.payment.model.PaymentResponse;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface PaymentService {
-    PaymentResponse processPayment(PaymentRequest paymentRequest);
+    CompletableFuture<PaymentResponse> processPayment(PaymentRequest paymentRequest);
+    CompletableFuture<List<PaymentBatchItemResult>> processPayments(List<PaymentRequest> paymentRequests);
     PaymentResponse getPaymentById(Long paymentId);
     List<PaymentResponse> getPaymentsByOrderId(Long orderId);
-    PaymentResponse refundPayment(Long paymentId);
-} 
\ No newline at end of file
+    CompletableFuture<PaymentResponse> refundPayment(Long paymentId);
+}
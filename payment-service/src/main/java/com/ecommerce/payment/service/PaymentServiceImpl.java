@@ -1,85 +1,255 @@
 package com.ecommerce.payment.service;
 
+import com.ecommerce.events.PaymentBatchProcessed;
+import com.ecommerce.events.PaymentProcessed;
+import com.ecommerce.events.PaymentRefunded;
+import com.ecommerce.outbox.OutboxService;
+import com.ecommerce.payment.gateway.GatewayResult;
+import com.ecommerce.payment.gateway.PaymentGatewayClient;
 import com.ecommerce.payment.model.Payment;
+import com.ecommerce.payment.model.PaymentBatchItemResult;
+import com.ecommerce.payment.model.PaymentBatchOutcome;
 import com.ecommerce.payment.model.PaymentRequest;
 import com.ecommerce.payment.model.PaymentResponse;
 import com.ecommerce.payment.model.PaymentStatus;
 import com.ecommerce.payment.repository.PaymentRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentServiceImpl.class);
+
     private final PaymentRepository paymentRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentGatewayClient paymentGatewayClient;
+    private final Executor taskExecutor;
 
     @Autowired
-    public PaymentServiceImpl(PaymentRepository paymentRepository, KafkaTemplate<String, String> kafkaTemplate) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, OutboxService outboxService,
+                              TransactionTemplate transactionTemplate, PaymentGatewayClient paymentGatewayClient,
+                              @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.paymentRepository = paymentRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentGatewayClient = paymentGatewayClient;
+        this.taskExecutor = taskExecutor;
     }
 
     @Override
     @CircuitBreaker(name = "paymentService", fallbackMethod = "processPaymentFallback")
     @RateLimiter(name = "paymentService")
-    @Retry(name = "paymentService")
     @TimeLimiter(name = "paymentService")
-    public PaymentResponse processPayment(PaymentRequest paymentRequest) {
-        try {
-            // In a real system, this would integrate with a payment gateway
-            // Simulate payment processing
-            Thread.sleep(500); // Simulating external payment gateway call
-            
-            String transactionId = UUID.randomUUID().toString();
-            
-            Payment payment = new Payment();
-            payment.setOrderId(paymentRequest.getOrderId());
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setPaymentMethod(paymentRequest.getPaymentMethod());
-            payment.setTransactionId(transactionId);
-            payment.setPaymentDate(LocalDateTime.now());
-            payment.setStatus(PaymentStatus.COMPLETED);
-            
-            payment = paymentRepository.save(payment);
-            
-            // Notify other services about the payment
-            kafkaTemplate.send("payment-events", "Payment processed: " + payment.getId());
-            
-            return mapToPaymentResponse(payment, "Payment processed successfully");
-        } catch (Exception e) {
-            Payment payment = new Payment();
-            payment.setOrderId(paymentRequest.getOrderId());
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setPaymentMethod(paymentRequest.getPaymentMethod());
-            payment.setPaymentDate(LocalDateTime.now());
-            payment.setStatus(PaymentStatus.FAILED);
-            
-            payment = paymentRepository.save(payment);
-            
-            return mapToPaymentResponse(payment, "Payment processing failed: " + e.getMessage());
+    public CompletableFuture<PaymentResponse> processPayment(PaymentRequest paymentRequest) {
+        Payment claim = null;
+        String key = paymentRequest.getIdempotencyKey();
+        if (key != null) {
+            List<Payment> existing = paymentRepository.findByIdempotencyKeyIn(List.of(key));
+            if (existing.isEmpty()) {
+                // Claim the key before charging, so a concurrent request with the same key cannot charge too
+                claim = claim(paymentRequest);
+                if (claim == null) {
+                    existing = paymentRepository.findByIdempotencyKeyIn(List.of(key));
+                }
+            }
+            if (claim == null) {
+                return CompletableFuture.completedFuture(mapToPaymentResponse(existing.get(0), "Payment already processed"));
+            }
         }
+        Payment payment = claim != null ? claim : pendingPayment(paymentRequest);
+
+        // The gateway call runs without holding a thread; persistence happens on the task executor
+        // once the gateway has answered. Charges are never retried: a timed-out charge may still be
+        // applied by the gateway, and a second attempt would bill the customer twice.
+        CompletableFuture<PaymentResponse> recorded = paymentGatewayClient.charge(paymentRequest)
+                .handle((result, e) -> e == null ? result
+                        : GatewayResult.declined("Payment gateway error: " + e.getMessage()))
+                .thenApplyAsync(result -> {
+                    applyResult(payment, result);
+                    Payment saved = transactionTemplate.execute(status -> {
+                        Payment stored = paymentRepository.save(payment);
+                        if (result.isApproved()) {
+                            // Notify other services about the payment, committed together with the row
+                            outboxService.enqueue("payment-events", String.valueOf(stored.getId()),
+                                    toPaymentProcessed(stored));
+                        }
+                        return stored;
+                    });
+
+                    if (!result.isApproved()) {
+                        return mapToPaymentResponse(saved, "Payment processing failed: " + result.getMessage());
+                    }
+                    return mapToPaymentResponse(saved, "Payment processed successfully");
+                }, taskExecutor);
+
+        // The time limiter cancels only the copy, so the gateway's answer is still recorded after a timeout
+        return recorded.copy();
     }
 
-    public PaymentResponse processPaymentFallback(PaymentRequest paymentRequest, Exception e) {
-        PaymentResponse response = new PaymentResponse();
-        response.setOrderId(paymentRequest.getOrderId());
-        response.setAmount(paymentRequest.getAmount());
-        response.setPaymentMethod(paymentRequest.getPaymentMethod());
-        response.setStatus(PaymentStatus.FAILED);
-        response.setMessage("Payment service is currently unavailable. Please try again later.");
-        return response;
+    public CompletableFuture<PaymentResponse> processPaymentFallback(PaymentRequest paymentRequest, Exception e) {
+        if (e instanceof TimeoutException) {
+            // The charge is still in flight and its outcome will be stored; it must not be reported as failed
+            PaymentResponse response = failedResponse(paymentRequest,
+                    "Payment is still being processed. Check the order's payments before retrying.");
+            response.setStatus(PaymentStatus.PENDING);
+            return CompletableFuture.completedFuture(response);
+        }
+        return CompletableFuture.completedFuture(
+                failedResponse(paymentRequest, "Payment service is currently unavailable. Please try again later."));
+    }
+
+    @Override
+    @CircuitBreaker(name = "paymentService", fallbackMethod = "processPaymentsFallback")
+    @RateLimiter(name = "paymentService")
+    public CompletableFuture<List<PaymentBatchItemResult>> processPayments(List<PaymentRequest> paymentRequests) {
+        PaymentBatchItemResult[] results = new PaymentBatchItemResult[paymentRequests.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Integer> pending = new ArrayList<>();
+
+        for (int i = 0; i < paymentRequests.size(); i++) {
+            String key = paymentRequests.get(i).getIdempotencyKey();
+            if (key == null || key.isBlank()) {
+                results[i] = new PaymentBatchItemResult(key, PaymentBatchOutcome.REJECTED,
+                        failedResponse(paymentRequests.get(i), "Idempotency key is required for batch payments"));
+            } else if (firstIndexByKey.putIfAbsent(key, i) == null) {
+                pending.add(i);
+            }
+        }
+
+        // Keys persisted by an earlier submission are answered from the stored payment
+        Map<String, Payment> existing = new HashMap<>();
+        if (!firstIndexByKey.isEmpty()) {
+            for (Payment payment : paymentRepository.findByIdempotencyKeyIn(firstIndexByKey.keySet())) {
+                existing.put(payment.getIdempotencyKey(), payment);
+            }
+        }
+        pending.removeIf(i -> answerFromStored(i, paymentRequests, existing, results));
+
+        // Claim the remaining keys as PENDING rows before any money moves. A key that a concurrent
+        // submission claimed first is answered from that submission's row instead of being charged.
+        List<Payment> claims = claimAll(pending.stream().map(paymentRequests::get).collect(Collectors.toList()));
+        List<Integer> claimed = new ArrayList<>(pending.size());
+        List<Payment> claimedPayments = new ArrayList<>(pending.size());
+        List<Integer> lost = new ArrayList<>();
+        for (int n = 0; n < pending.size(); n++) {
+            if (claims.get(n) != null) {
+                claimed.add(pending.get(n));
+                claimedPayments.add(claims.get(n));
+            } else {
+                lost.add(pending.get(n));
+            }
+        }
+        if (!lost.isEmpty()) {
+            Map<String, Payment> winners = new HashMap<>();
+            List<String> lostKeys = lost.stream()
+                    .map(i -> paymentRequests.get(i).getIdempotencyKey())
+                    .collect(Collectors.toList());
+            for (Payment payment : paymentRepository.findByIdempotencyKeyIn(lostKeys)) {
+                winners.put(payment.getIdempotencyKey(), payment);
+            }
+            for (int i : lost) {
+                if (!answerFromStored(i, paymentRequests, winners, results)) {
+                    // The insert broke a constraint other than the key's uniqueness
+                    results[i] = new PaymentBatchItemResult(paymentRequests.get(i).getIdempotencyKey(),
+                            PaymentBatchOutcome.REJECTED, failedResponse(paymentRequests.get(i), "Payment could not be recorded"));
+                }
+            }
+        }
+
+        List<CompletableFuture<GatewayResult>> charges = claimed.stream()
+                .map(i -> paymentGatewayClient.charge(paymentRequests.get(i))
+                        .handle((result, e) -> e == null ? result
+                                : GatewayResult.declined("Payment gateway error: " + e.getMessage())))
+                .collect(Collectors.toList());
+
+        return CompletableFuture.allOf(charges.toArray(new CompletableFuture[0]))
+                .thenApplyAsync(ignored -> {
+                    for (int n = 0; n < claimed.size(); n++) {
+                        applyResult(claimedPayments.get(n), charges.get(n).join());
+                    }
+
+                    List<Payment> saved;
+                    try {
+                        saved = transactionTemplate.execute(status -> {
+                            // Loading the claims in one query lets saveAll merge them without a select per row
+                            paymentRepository.findAllById(claimedPayments.stream().map(Payment::getId)
+                                    .collect(Collectors.toList()));
+                            List<Payment> updated = paymentRepository.saveAll(claimedPayments);
+                            List<PaymentProcessed> completed = updated.stream()
+                                    .filter(payment -> payment.getStatus() == PaymentStatus.COMPLETED)
+                                    .map(this::toPaymentProcessed)
+                                    .collect(Collectors.toList());
+                            // One aggregated record per batch instead of one per payment
+                            if (!completed.isEmpty()) {
+                                outboxService.enqueue("payment-events", null,
+                                        new PaymentBatchProcessed(completed, Instant.now()));
+                            }
+                            return updated;
+                        });
+                    } catch (RuntimeException e) {
+                        // The cards have been charged, so the items must not be reported as rejected:
+                        // their claims stay PENDING until they are reconciled against the gateway
+                        log.error("Recording the outcome of {} charged payments failed; their rows stay PENDING",
+                                claimedPayments.size(), e);
+                        for (int n = 0; n < claimed.size(); n++) {
+                            PaymentResponse response = mapToPaymentResponse(claimedPayments.get(n),
+                                    "Payment was sent to the gateway but its outcome could not be recorded");
+                            response.setStatus(PaymentStatus.PENDING);
+                            results[claimed.get(n)] = new PaymentBatchItemResult(
+                                    claimedPayments.get(n).getIdempotencyKey(), PaymentBatchOutcome.CREATED, response);
+                        }
+                        saved = List.of();
+                    }
+
+                    for (int n = 0; n < saved.size(); n++) {
+                        Payment payment = saved.get(n);
+                        String message = payment.getStatus() == PaymentStatus.COMPLETED
+                                ? "Payment processed successfully"
+                                : "Payment processing failed: " + charges.get(n).join().getMessage();
+                        results[claimed.get(n)] = new PaymentBatchItemResult(payment.getIdempotencyKey(),
+                                PaymentBatchOutcome.CREATED, mapToPaymentResponse(payment, message));
+                    }
+
+                    // Repeated keys within the batch mirror the first occurrence
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i] == null) {
+                            String key = paymentRequests.get(i).getIdempotencyKey();
+                            PaymentBatchItemResult first = results[firstIndexByKey.get(key)];
+                            results[i] = new PaymentBatchItemResult(key, PaymentBatchOutcome.DUPLICATE, first.getPayment());
+                        }
+                    }
+                    return Arrays.asList(results);
+                }, taskExecutor);
+    }
+
+    public CompletableFuture<List<PaymentBatchItemResult>> processPaymentsFallback(List<PaymentRequest> paymentRequests, Exception e) {
+        List<PaymentBatchItemResult> results = paymentRequests.stream()
+                .map(request -> new PaymentBatchItemResult(request.getIdempotencyKey(), PaymentBatchOutcome.REJECTED,
+                        failedResponse(request, "Payment service is currently unavailable. Please try again later.")))
+                .collect(Collectors.toList());
+        return CompletableFuture.completedFuture(results);
     }
 
     @Override
@@ -118,37 +288,138 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @CircuitBreaker(name = "paymentService", fallbackMethod = "refundPaymentFallback")
     @RateLimiter(name = "paymentService")
-    @Retry(name = "paymentService")
-    public PaymentResponse refundPayment(Long paymentId) {
+    @TimeLimiter(name = "paymentService")
+    public CompletableFuture<PaymentResponse> refundPayment(Long paymentId) {
         Payment payment = paymentRepository.findById(paymentId)
-                .orElseThrow(() -> new RuntimeException("Payment not found with ID: " + paymentId));
-        
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            return mapToPaymentResponse(payment, "Cannot refund payment that is not completed");
-        }
-        
-        // In a real system, this would integrate with a payment gateway for refund
-        // Simulate refund processing
-        try {
-            Thread.sleep(500); // Simulating external payment gateway call
-            
-            payment.setStatus(PaymentStatus.REFUNDED);
-            payment = paymentRepository.save(payment);
-            
-            // Notify other services about the refund
-            kafkaTemplate.send("payment-events", "Payment refunded: " + payment.getId());
-            
-            return mapToPaymentResponse(payment, "Payment refunded successfully");
-        } catch (Exception e) {
-            return mapToPaymentResponse(payment, "Refund processing failed: " + e.getMessage());
+                .orElseThrow(() -> new PaymentNotFoundException(paymentId));
+        // Claim the refund before calling the gateway, so a concurrent request cannot refund too
+        if (!transition(paymentId, PaymentStatus.COMPLETED, PaymentStatus.REFUNDING)) {
+            Payment current = paymentRepository.findById(paymentId).orElse(payment);
+            String message = current.getStatus() == PaymentStatus.REFUNDING
+                    ? "Refund is already in progress"
+                    : "Cannot refund payment that is not completed";
+            return CompletableFuture.completedFuture(mapToPaymentResponse(current, message));
         }
+        payment.setStatus(PaymentStatus.REFUNDING);
+
+        // Refunds are not retried either; as with charges, the limiter cancels only the copy
+        CompletableFuture<PaymentResponse> recorded = paymentGatewayClient.refund(payment)
+                .handle((result, e) -> e == null ? result
+                        : GatewayResult.declined("Payment gateway error: " + e.getMessage()))
+                .thenApplyAsync(result -> {
+                    if (!result.isApproved()) {
+                        // Release the claim so the refund can be requested again
+                        transition(paymentId, PaymentStatus.REFUNDING, PaymentStatus.COMPLETED);
+                        payment.setStatus(PaymentStatus.COMPLETED);
+                        return mapToPaymentResponse(payment, "Refund processing failed: " + result.getMessage());
+                    }
+                    payment.setStatus(PaymentStatus.REFUNDED);
+                    Payment refunded = transactionTemplate.execute(status -> {
+                        Payment saved = paymentRepository.save(payment);
+                        outboxService.enqueue("payment-events", String.valueOf(saved.getId()),
+                                new PaymentRefunded(saved.getId(), saved.getOrderId(), saved.getAmount(), Instant.now()));
+                        return saved;
+                    });
+                    return mapToPaymentResponse(refunded, "Payment refunded successfully");
+                }, taskExecutor);
+        return recorded.copy();
     }
 
-    public PaymentResponse refundPaymentFallback(Long paymentId, Exception e) {
+    public CompletableFuture<PaymentResponse> refundPaymentFallback(Long paymentId, Exception e) {
+        if (e instanceof PaymentNotFoundException) {
+            // Answered as 404 by the controller; an unknown id is not a service failure
+            return CompletableFuture.failedFuture(e);
+        }
         PaymentResponse response = new PaymentResponse();
         response.setId(paymentId);
+        if (e instanceof TimeoutException) {
+            // The refund is still in flight and its outcome will be stored; it must not be reported as failed
+            response.setStatus(PaymentStatus.PENDING);
+            response.setMessage("Refund is still being processed. Check the payment before retrying.");
+            return CompletableFuture.completedFuture(response);
+        }
         response.setStatus(PaymentStatus.FAILED);
         response.setMessage("Refund service is currently unavailable. Please try again later.");
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private boolean answerFromStored(int index, List<PaymentRequest> paymentRequests, Map<String, Payment> stored,
+                                     PaymentBatchItemResult[] results) {
+        String key = paymentRequests.get(index).getIdempotencyKey();
+        Payment payment = stored.get(key);
+        if (payment == null) {
+            return false;
+        }
+        results[index] = new PaymentBatchItemResult(key, PaymentBatchOutcome.DUPLICATE,
+                mapToPaymentResponse(payment, "Payment already processed"));
+        return true;
+    }
+
+    /**
+     * Inserts PENDING rows for the requests in one batch. If another submission holds one of
+     * the keys, the claims are retried one by one and only the conflicting items come back null.
+     */
+    private List<Payment> claimAll(List<PaymentRequest> paymentRequests) {
+        if (paymentRequests.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<Payment> claims = paymentRequests.stream().map(this::pendingPayment).collect(Collectors.toList());
+            return transactionTemplate.execute(status -> paymentRepository.saveAllAndFlush(claims));
+        } catch (DataIntegrityViolationException e) {
+            return paymentRequests.stream().map(this::claim).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Inserts a PENDING row for the request in its own transaction, or returns null when
+     * another request already holds its idempotency key.
+     */
+    private Payment claim(PaymentRequest paymentRequest) {
+        try {
+            return transactionTemplate.execute(status -> paymentRepository.saveAndFlush(pendingPayment(paymentRequest)));
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private boolean transition(Long paymentId, PaymentStatus from, PaymentStatus to) {
+        Integer updated = transactionTemplate.execute(status -> paymentRepository.transitionStatus(paymentId, from, to));
+        return updated != null && updated > 0;
+    }
+
+    private Payment pendingPayment(PaymentRequest paymentRequest) {
+        Payment payment = new Payment();
+        payment.setIdempotencyKey(paymentRequest.getIdempotencyKey());
+        payment.setOrderId(paymentRequest.getOrderId());
+        payment.setAmount(paymentRequest.getAmount());
+        payment.setPaymentMethod(paymentRequest.getPaymentMethod());
+        payment.setPaymentDate(LocalDateTime.now());
+        payment.setStatus(PaymentStatus.PENDING);
+        return payment;
+    }
+
+    private void applyResult(Payment payment, GatewayResult result) {
+        if (result.isApproved()) {
+            payment.setTransactionId(result.getTransactionId());
+            payment.setStatus(PaymentStatus.COMPLETED);
+        } else {
+            payment.setStatus(PaymentStatus.FAILED);
+        }
+    }
+
+    private PaymentProcessed toPaymentProcessed(Payment payment) {
+        return new PaymentProcessed(payment.getId(), payment.getOrderId(), payment.getAmount(),
+                payment.getPaymentMethod(), payment.getTransactionId(), Instant.now());
+    }
+
+    private PaymentResponse failedResponse(PaymentRequest paymentRequest, String message) {
+        PaymentResponse response = new PaymentResponse();
+        response.setOrderId(paymentRequest.getOrderId());
+        response.setAmount(paymentRequest.getAmount());
+        response.setPaymentMethod(paymentRequest.getPaymentMethod());
+        response.setStatus(PaymentStatus.FAILED);
+        response.setMessage(message);
         return response;
     }
 
@@ -0,0 +1,10 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.reconciliation.ReconciliationJob;
+import com.ecommerce.payment.reconciliation.ReconciliationRequest;
+
+public interface ReconciliationService {
+    ReconciliationJob startReconciliation(ReconciliationRequest request);
+    ReconciliationJob getReconciliation(Long jobId);
+    ReconciliationJob resumeReconciliation(Long jobId);
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.payment.service;
+
+import com.ecommerce.payment.model.PaymentStatus;
+import com.ecommerce.payment.reconciliation.ReconciliationJob;
+import com.ecommerce.payment.reconciliation.ReconciliationJobRepository;
+import com.ecommerce.payment.reconciliation.ReconciliationJobStatus;
+import com.ecommerce.payment.reconciliation.ReconciliationRequest;
+import com.ecommerce.payment.reconciliation.ReconciliationRunner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+
+    private final ReconciliationJobRepository jobRepository;
+    private final ReconciliationRunner reconciliationRunner;
+    private final String reportDirectory;
+
+    @Autowired
+    public ReconciliationServiceImpl(ReconciliationJobRepository jobRepository, ReconciliationRunner reconciliationRunner,
+                                     @Value("${payment.reconciliation.report-dir:reconciliation-reports}") String reportDirectory) {
+        this.jobRepository = jobRepository;
+        this.reconciliationRunner = reconciliationRunner;
+        this.reportDirectory = reportDirectory;
+    }
+
+    @Override
+    public ReconciliationJob startReconciliation(ReconciliationRequest request) {
+        PaymentStatus paymentStatus = request.getPaymentStatus() == null ? PaymentStatus.COMPLETED : request.getPaymentStatus();
+        // Only settled payments carry a gateway transaction to match
+        if (paymentStatus != PaymentStatus.COMPLETED && paymentStatus != PaymentStatus.REFUNDED) {
+            throw new IllegalArgumentException("Only COMPLETED or REFUNDED payments can be reconciled");
+        }
+        if (request.getFrom() == null || request.getTo() == null || !request.getFrom().isBefore(request.getTo())) {
+            throw new IllegalArgumentException("A date range with from before to is required");
+        }
+        if (request.getSettlementFile() == null) {
+            throw new IllegalArgumentException("A settlement file is required");
+        }
+        reconciliationRunner.settlementPath(request.getSettlementFile());
+
+        LocalDateTime now = LocalDateTime.now();
+        ReconciliationJob job = new ReconciliationJob();
+        job.setStatus(ReconciliationJobStatus.RUNNING);
+        job.setPaymentStatus(paymentStatus);
+        job.setFromDate(request.getFrom());
+        job.setToDate(request.getTo());
+        job.setSettlementFile(request.getSettlementFile());
+        // The checkpoint starts just before the first payment of the range
+        job.setLastPaymentDate(request.getFrom());
+        job.setLastPaymentId(0L);
+        job.setChunkCount(0L);
+        job.setProcessedCount(0L);
+        job.setMismatchCount(0L);
+        job.setStartedAt(now);
+        job.setUpdatedAt(now);
+        job = jobRepository.save(job);
+        job.setReportDirectory(Paths.get(reportDirectory, "job-" + job.getId()).toAbsolutePath().toString());
+        job = jobRepository.save(job);
+
+        reconciliationRunner.start(job.getId());
+        return job;
+    }
+
+    @Override
+    public ReconciliationJob getReconciliation(Long jobId) {
+        return jobRepository.findById(jobId).orElse(null);
+    }
+
+    @Override
+    public ReconciliationJob resumeReconciliation(Long jobId) {
+        ReconciliationJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return null;
+        }
+        // A RUNNING job is only taken over once its runner's lease has expired, e.g. after a crash
+        if (!reconciliationRunner.start(jobId)) {
+            throw new IllegalStateException("Reconciliation job " + jobId + " is " + job.getStatus());
+        }
+        return jobRepository.findById(jobId).orElse(job);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.product.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the per-replica product caches coherent. Every write evicts the local entry and
+ * broadcasts the product id; each replica listens with its own consumer group so all of
+ * them receive every invalidation.
+ */
+@Component
+public class ProductCacheInvalidator {
+
+    public static final String PRODUCTS_CACHE = "products";
+
+    private final CacheManager cacheManager;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final String invalidationTopic;
+
+    @Autowired
+    public ProductCacheInvalidator(CacheManager cacheManager, KafkaTemplate<String, String> kafkaTemplate,
+                                   @Value("${product.cache.invalidation-topic}") String invalidationTopic) {
+        this.cacheManager = cacheManager;
+        this.kafkaTemplate = kafkaTemplate;
+        this.invalidationTopic = invalidationTopic;
+    }
+
+    public void invalidate(Long productId) {
+        evict(productId);
+        kafkaTemplate.send(invalidationTopic, String.valueOf(productId), String.valueOf(productId));
+    }
+
+    @KafkaListener(topics = "${product.cache.invalidation-topic}",
+            groupId = "product-cache-${product.cache.instance-id}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidation(String productId) {
+        evict(Long.valueOf(productId));
+    }
+
+    private void evict(Long productId) {
+        Cache cache = cacheManager.getCache(PRODUCTS_CACHE);
+        if (cache != null) {
+            cache.evict(productId);
+        }
+    }
+}
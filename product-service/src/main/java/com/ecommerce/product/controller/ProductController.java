@@ -1,12 +1,15 @@
 package com.ecommerce.product.controller;
 
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductPage;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.stock.StockUpdateResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/products")
@@ -19,8 +22,17 @@ public class ProductController {
     }
 
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ProductPage getProducts(@RequestParam(required = false) Long after,
+                                   @RequestParam(required = false) Integer size) {
+        return productService.getProductPage(after, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = productService::writeAllProductsAsNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -57,11 +69,17 @@ public class ProductController {
 
     @PutMapping("/{id}/stock")
     public ResponseEntity<Void> updateStock(@PathVariable Long id, @RequestParam Integer quantity) {
-        try {
-            productService.updateStock(id, quantity);
-            return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+        StockUpdateResult result = productService.updateStock(id, quantity);
+        switch (result) {
+            case UPDATED:
+                return ResponseEntity.ok().build();
+            case INSUFFICIENT_STOCK:
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            case INDETERMINATE:
+                // Not a failure: the decrement is still queued and may be applied after this response
+                return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            default:
+                return ResponseEntity.notFound().build();
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,32 +1,94 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.cache.ProductCacheInvalidator;
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.ProductPage;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.stock.StockReservationEngine;
+import com.ecommerce.product.stock.StockUpdateResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     private final ProductRepository productRepository;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final StockReservationEngine stockReservationEngine;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductCacheInvalidator productCacheInvalidator,
+                          StockReservationEngine stockReservationEngine, EntityManager entityManager, ObjectMapper objectMapper,
+                          @Value("${product.listing.default-page-size:100}") int defaultPageSize,
+                          @Value("${product.listing.max-page-size:1000}") int maxPageSize) {
         this.productRepository = productRepository;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.stockReservationEngine = stockReservationEngine;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public ProductPage getProductPage(Long afterId, Integer size) {
+        int pageSize = Math.min(size == null ? defaultPageSize : Math.max(size, 1), maxPageSize);
+        // Fetch one extra row to know whether another page exists
+        List<Product> products = productRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        if (products.size() <= pageSize) {
+            return new ProductPage(products, null);
+        }
+        List<Product> page = products.subList(0, pageSize);
+        return new ProductPage(page, page.get(pageSize - 1).getId());
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    // Writes one JSON object per line straight from a streaming cursor; each row is detached
+    // after it is written so the persistence context never grows with the catalog
+    @Transactional(readOnly = true)
+    public void writeAllProductsAsNdjson(OutputStream outputStream) throws IOException {
+        try (Stream<Product> products = productRepository.streamAllOrderById()) {
+            Iterator<Product> iterator = products.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                outputStream.write(objectMapper.writeValueAsBytes(product));
+                outputStream.write('\n');
+                entityManager.detach(product);
+                if (++written % STREAM_FLUSH_ROWS == 0) {
+                    outputStream.flush();
+                }
+            }
+        }
+        outputStream.flush();
     }
 
+    @Cacheable(cacheNames = ProductCacheInvalidator.PRODUCTS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Product> getProductById(Long id) {
         return productRepository.findById(id);
     }
 
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCacheInvalidator.invalidate(saved.getId());
+        return saved;
     }
 
     public Product updateProduct(Long id, Product productDetails) {
@@ -38,18 +100,24 @@ public class ProductService {
         product.setPrice(productDetails.getPrice());
         product.setStockQuantity(productDetails.getStockQuantity());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        productCacheInvalidator.invalidate(id);
+        return saved;
     }
 
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productCacheInvalidator.invalidate(id);
     }
 
-    public void updateStock(Long id, Integer quantity) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-        
-        product.setStockQuantity(product.getStockQuantity() - quantity);
-        productRepository.save(product);
+    // Positive quantities are taken out of stock, negative ones put back
+    public StockUpdateResult updateStock(Long id, Integer quantity) {
+        if (quantity > 0) {
+            return stockReservationEngine.decrement(id, quantity);
+        }
+        if (quantity < 0) {
+            return stockReservationEngine.increment(id, -quantity);
+        }
+        return productRepository.existsById(id) ? StockUpdateResult.UPDATED : StockUpdateResult.PRODUCT_NOT_FOUND;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.product.stock;
+
+import com.ecommerce.product.cache.ProductCacheInvalidator;
+import com.ecommerce.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies stock decrements with conditional UPDATEs so stock can never go negative.
+ * Requests are collected for a short batch window and coalesced per product: a hot SKU
+ * gets one UPDATE for the summed quantity, falling back to per-request decrements in
+ * arrival order only when the sum no longer fits.
+ */
+@Component
+public class StockReservationEngine {
+
+    private final ProductRepository productRepository;
+    private final ProductCacheInvalidator productCacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeoutMs;
+    private final Queue<PendingDecrement> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService workers;
+
+    @Autowired
+    public StockReservationEngine(ProductRepository productRepository,
+                                  ProductCacheInvalidator productCacheInvalidator,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${product.stock.batch-window-ms:2}") long batchWindowMs,
+                                  @Value("${product.stock.workers:4}") int workers,
+                                  @Value("${product.stock.timeout-ms:2000}") long timeoutMs) {
+        this.productRepository = productRepository;
+        this.productCacheInvalidator = productCacheInvalidator;
+        this.transactionTemplate = transactionTemplate;
+        this.timeoutMs = timeoutMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(named("stock-flusher"));
+        this.workers = Executors.newFixedThreadPool(workers, named("stock-writer"));
+        this.flusher.scheduleWithFixedDelay(this::flush, batchWindowMs, batchWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    public StockUpdateResult decrement(Long productId, int quantity) {
+        PendingDecrement decrement = new PendingDecrement(productId, quantity);
+        pending.add(decrement);
+        try {
+            return decrement.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reserving stock", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Stock update failed for product " + productId, e.getCause());
+        } catch (TimeoutException e) {
+            // The decrement is still queued or in flight and may yet be applied
+            return StockUpdateResult.INDETERMINATE;
+        }
+    }
+
+    public StockUpdateResult increment(Long productId, int quantity) {
+        Integer updated = transactionTemplate.execute(status -> productRepository.incrementStock(productId, quantity));
+        if (updated == null || updated == 0) {
+            return StockUpdateResult.PRODUCT_NOT_FOUND;
+        }
+        productCacheInvalidator.invalidate(productId);
+        return StockUpdateResult.UPDATED;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+        flush();
+        workers.shutdown();
+        workers.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        Map<Long, List<PendingDecrement>> byProduct = new LinkedHashMap<>();
+        PendingDecrement decrement;
+        while ((decrement = pending.poll()) != null) {
+            byProduct.computeIfAbsent(decrement.productId, id -> new ArrayList<>()).add(decrement);
+        }
+        for (Map.Entry<Long, List<PendingDecrement>> group : byProduct.entrySet()) {
+            workers.execute(() -> apply(group.getKey(), group.getValue()));
+        }
+    }
+
+    private void apply(Long productId, List<PendingDecrement> decrements) {
+        List<StockUpdateResult> results;
+        try {
+            results = transactionTemplate.execute(status -> applyInTransaction(productId, decrements));
+        } catch (RuntimeException e) {
+            decrements.forEach(d -> d.result.completeExceptionally(e));
+            return;
+        }
+        // Callers only hear about their decrement once the transaction has committed
+        if (results.contains(StockUpdateResult.UPDATED)) {
+            productCacheInvalidator.invalidate(productId);
+        }
+        for (int i = 0; i < decrements.size(); i++) {
+            decrements.get(i).result.complete(results.get(i));
+        }
+    }
+
+    private List<StockUpdateResult> applyInTransaction(Long productId, List<PendingDecrement> decrements) {
+        int total = decrements.stream().mapToInt(d -> d.quantity).sum();
+        if (productRepository.decrementStock(productId, total) == 1) {
+            return Collections.nCopies(decrements.size(), StockUpdateResult.UPDATED);
+        }
+
+        if (!productRepository.existsById(productId)) {
+            return Collections.nCopies(decrements.size(), StockUpdateResult.PRODUCT_NOT_FOUND);
+        }
+
+        // Not enough for everyone: serve requests in arrival order while stock lasts
+        List<StockUpdateResult> results = new ArrayList<>(decrements.size());
+        for (PendingDecrement d : decrements) {
+            if (decrements.size() > 1 && productRepository.decrementStock(productId, d.quantity) == 1) {
+                results.add(StockUpdateResult.UPDATED);
+            } else {
+                results.add(StockUpdateResult.INSUFFICIENT_STOCK);
+            }
+        }
+        return results;
+    }
+
+    private static java.util.concurrent.ThreadFactory named(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class PendingDecrement {
+        private final Long productId;
+        private final int quantity;
+        private final CompletableFuture<StockUpdateResult> result = new CompletableFuture<>();
+
+        private PendingDecrement(Long productId, int quantity) {
+            this.productId = productId;
+            this.quantity = quantity;
+        }
+    }
+}
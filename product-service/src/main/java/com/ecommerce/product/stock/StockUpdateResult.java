@@ -0,0 +1,8 @@
+package com.ecommerce.product.stock;
+
+public enum StockUpdateResult {
+    UPDATED,
+    INSUFFICIENT_STOCK,
+    PRODUCT_NOT_FOUND,
+    INDETERMINATE // timed out waiting for the batch; the decrement may still be applied
+}
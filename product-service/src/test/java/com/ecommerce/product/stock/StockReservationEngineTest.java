@@ -0,0 +1,134 @@
+package com.ecommerce.product.stock;
+
+import com.ecommerce.product.cache.ProductCacheInvalidator;
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Hammers one product from many threads through the real conditional UPDATEs. The test
+ * itself runs outside a transaction, because the engine commits from its own writer threads.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "product.stock.timeout-ms=30000"
+})
+@Import(StockReservationEngine.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationEngineTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 200;
+    private static final int INITIAL_STOCK = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationEngine stockReservationEngine;
+
+    @MockBean
+    private ProductCacheInvalidator productCacheInvalidator;
+
+    @AfterEach
+    void deleteProducts() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void neverOversellsUnderContention() throws Exception {
+        Long productId = createProduct();
+
+        Outcome outcome = hammer(productId, () -> 1 + ThreadLocalRandom.current().nextInt(3));
+
+        int remaining = stockOf(productId);
+        assertThat(remaining).isGreaterThanOrEqualTo(0);
+        assertThat(outcome.sold.get()).isLessThanOrEqualTo(INITIAL_STOCK);
+        assertThat(remaining).isEqualTo(INITIAL_STOCK - outcome.sold.get());
+        assertThat(outcome.rejected.get()).isPositive();
+    }
+
+    @Test
+    void sellsExactlyTheAvailableStockWhenDemandExceedsIt() throws Exception {
+        Long productId = createProduct();
+
+        // 6400 single-unit requests for 1000 units: every unit is sold and nothing more
+        Outcome outcome = hammer(productId, () -> 1);
+
+        assertThat(outcome.sold.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(outcome.rejected.get()).isEqualTo(THREADS * REQUESTS_PER_THREAD - INITIAL_STOCK);
+        assertThat(stockOf(productId)).isZero();
+    }
+
+    @Test
+    void reportsMissingProducts() {
+        assertThat(stockReservationEngine.decrement(Long.MAX_VALUE, 1)).isEqualTo(StockUpdateResult.PRODUCT_NOT_FOUND);
+    }
+
+    private Outcome hammer(Long productId, IntSupplier quantities) throws Exception {
+        Outcome outcome = new Outcome();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> done = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Callable<Void> client = () -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        int quantity = quantities.getAsInt();
+                        StockUpdateResult result = stockReservationEngine.decrement(productId, quantity);
+                        switch (result) {
+                            case UPDATED -> outcome.sold.addAndGet(quantity);
+                            case INSUFFICIENT_STOCK -> outcome.rejected.incrementAndGet();
+                            default -> fail("Unexpected result " + result);
+                        }
+                    }
+                    return null;
+                };
+                done.add(clients.submit(client));
+            }
+            start.countDown();
+            for (Future<Void> future : done) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return outcome;
+    }
+
+    private Long createProduct() {
+        return productRepository.save(new Product(null, "Hot SKU", "Contended product", 9.99, INITIAL_STOCK)).getId();
+    }
+
+    private int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+
+    private static final class Outcome {
+        private final AtomicInteger sold = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.shipping.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Container factory for the payment-events batch listener. It starts from Boot's
+ * configuration (so the Micrometer consumer metrics, including records-lag, stay
+ * registered), then switches to batch delivery with manual acknowledgement.
+ * Only records the listener reports as undecodable are published unchanged to the dead-letter
+ * topic. Any other failure, such as the database being down, retries the whole batch with an
+ * exponential backoff that never gives up, so no payment is dropped while it lasts.
+ */
+@Configuration
+public class PaymentEventsConsumerConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentEventsListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory,
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            @Value("${shipping.payment-events.concurrency:3}") int concurrency,
+            @Value("${shipping.payment-events.dead-letter-topic:payment-events.DLT}") String deadLetterTopic,
+            @Value("${shipping.payment-events.retry-initial-interval-ms:1000}") long retryInitialIntervalMs,
+            @Value("${shipping.payment-events.retry-max-interval-ms:60000}") long retryMaxIntervalMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+        // Partition -1 lets the producer pick one, so the DLT needs no matching partition count
+        DeadLetterPublishingRecoverer deadLetters = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(deadLetterTopic, -1));
+        // Throwing leaves the record unrecovered, so it is delivered again instead of dead-lettered
+        ConsumerRecordRecoverer recoverer = (record, e) -> {
+            if (!isUndecodable(e)) {
+                throw new KafkaException("Not dead-lettering payment event at offset " + record.offset(), e);
+            }
+            deadLetters.accept(record, e);
+        };
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialIntervalMs, 2.0);
+        backOff.setMaxInterval(retryMaxIntervalMs);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        // Undecodable payloads will not decode on a retry either
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
+        factory.setCommonErrorHandler(errorHandler);
+        return factory;
+    }
+
+    // The listener reports an undecodable record as a BatchListenerFailedException caused by an IllegalArgumentException
+    private static boolean isUndecodable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchListenerFailedException failed) {
+                return failed.getCause() instanceof IllegalArgumentException;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.shipping.config;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.List;
+
+/**
+ * Container factory for the tracking number index listener. The listener is assigned every
+ * partition of its topic directly instead of joining a consumer group, and it never
+ * acknowledges, so no offsets are committed and a restart leaves nothing behind on the broker.
+ */
+@Configuration
+public class TrackingIndexConsumerConfig {
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> trackingIndexListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, kafkaConsumerFactory);
+        factory.setConcurrency(1);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    public TopicPartitions trackingIndexPartitions(ConsumerFactory<Object, Object> kafkaConsumerFactory) {
+        return new TopicPartitions(kafkaConsumerFactory);
+    }
+
+    /**
+     * Looks up a topic's partitions for {@code @TopicPartition} expressions. Partitions added
+     * to the topic later are picked up on restart.
+     */
+    public static class TopicPartitions {
+
+        private final ConsumerFactory<Object, Object> consumerFactory;
+
+        TopicPartitions(ConsumerFactory<Object, Object> consumerFactory) {
+            this.consumerFactory = consumerFactory;
+        }
+
+        public String[] of(String topic) {
+            try (Consumer<Object, Object> consumer = consumerFactory.createConsumer()) {
+                List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+                if (partitions == null || partitions.isEmpty()) {
+                    // Not created yet: the first send auto-creates it with a single partition
+                    return new String[] {"0"};
+                }
+                return partitions.stream().map(partition -> String.valueOf(partition.partition())).toArray(String[]::new);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.shipping.controller;
+
+import com.ecommerce.shipping.service.ShipmentTrackingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admin operations on the read projections, served at {@code POST /actuator/projections}. The
+ * gateway only routes {@code /api/**}, so clients cannot reach it; call the service directly.
+ */
+@Component
+@Endpoint(id = "projections")
+public class ProjectionAdminEndpoint {
+
+    private final ShipmentTrackingService shipmentTrackingService;
+
+    @Autowired
+    public ProjectionAdminEndpoint(ShipmentTrackingService shipmentTrackingService) {
+        this.shipmentTrackingService = shipmentTrackingService;
+    }
+
+    // Replays the event log into empty projections; they catch up asynchronously
+    @WriteOperation
+    public String rebuild() {
+        shipmentTrackingService.rebuildProjections();
+        return "Projection rebuild started";
+    }
+}
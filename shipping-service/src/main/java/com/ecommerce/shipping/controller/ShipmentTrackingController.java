@@ -0,0 +1,47 @@
+package com.ecommerce.shipping.controller;
+
+import com.ecommerce.shipping.model.OrderTimeline;
+import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentTracking;
+import com.ecommerce.shipping.service.ShipmentTrackingService;
+import com.ecommerce.shipping.timeline.CarrierStatusCount;
+import com.ecommerce.shipping.timeline.TimeInStateBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shipping")
+public class ShipmentTrackingController {
+
+    private final ShipmentTrackingService shipmentTrackingService;
+
+    @Autowired
+    public ShipmentTrackingController(ShipmentTrackingService shipmentTrackingService) {
+        this.shipmentTrackingService = shipmentTrackingService;
+    }
+
+    @GetMapping("/{id}/tracking")
+    public ResponseEntity<ShipmentTracking> getTracking(@PathVariable Long id) {
+        return new ResponseEntity<>(shipmentTrackingService.getTracking(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/order/{orderId}/timeline")
+    public ResponseEntity<OrderTimeline> getOrderTimeline(@PathVariable Long orderId) {
+        return new ResponseEntity<>(shipmentTrackingService.getOrderTimeline(orderId), HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/carrier-status")
+    public ResponseEntity<List<CarrierStatusCount>> getCarrierStatusCounts() {
+        return new ResponseEntity<>(shipmentTrackingService.getCarrierStatusCounts(), HttpStatus.OK);
+    }
+
+    @GetMapping("/stats/time-in-state")
+    public ResponseEntity<List<TimeInStateBucket>> getTimeInStateHistogram(
+            @RequestParam(required = false) ShipmentStatus status) {
+        return new ResponseEntity<>(shipmentTrackingService.getTimeInStateHistogram(status), HttpStatus.OK);
+    }
+}
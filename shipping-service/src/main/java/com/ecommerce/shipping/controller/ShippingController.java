@@ -1,11 +1,17 @@
 package com.ecommerce.shipping.controller;
 
+import com.ecommerce.shipping.model.ShipmentCursor;
+import com.ecommerce.shipping.model.ShipmentPage;
 import com.ecommerce.shipping.model.ShipmentRequest;
 import com.ecommerce.shipping.model.ShipmentResponse;
 import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentStatusBatchEntry;
+import com.ecommerce.shipping.model.ShipmentStatusBatchItemResult;
 import com.ecommerce.shipping.model.ShipmentStatusUpdateRequest;
 import com.ecommerce.shipping.service.ShippingService;
+import com.ecommerce.shipping.tracking.TrackingNumberIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,10 +23,15 @@ import java.util.List;
 public class ShippingController {
 
     private final ShippingService shippingService;
+    private final TrackingNumberIndex trackingNumberIndex;
+    private final int maxBatchEntries;
 
     @Autowired
-    public ShippingController(ShippingService shippingService) {
+    public ShippingController(ShippingService shippingService, TrackingNumberIndex trackingNumberIndex,
+                              @Value("${shipping.status-batch.max-entries:5000}") int maxBatchEntries) {
         this.shippingService = shippingService;
+        this.trackingNumberIndex = trackingNumberIndex;
+        this.maxBatchEntries = maxBatchEntries;
     }
 
     @PostMapping
@@ -35,6 +46,19 @@ public class ShippingController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    // Numbers the index has never seen are answered here, before the rate limiter and the database
+    @GetMapping("/track/{trackingNumber}")
+    public ResponseEntity<ShipmentResponse> getShipmentByTrackingNumber(@PathVariable String trackingNumber) {
+        if (!trackingNumberIndex.mightExist(trackingNumber)) {
+            return ResponseEntity.notFound().build();
+        }
+        ShipmentResponse response = shippingService.getShipmentByTrackingNumber(trackingNumber);
+        if (response == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @GetMapping("/order/{orderId}")
     public ResponseEntity<List<ShipmentResponse>> getShipmentsByOrderId(@PathVariable Long orderId) {
         List<ShipmentResponse> responses = shippingService.getShipmentsByOrderId(orderId);
@@ -42,9 +66,20 @@ public class ShippingController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<ShipmentResponse>> getShipmentsByStatus(@PathVariable ShipmentStatus status) {
-        List<ShipmentResponse> responses = shippingService.getShipmentsByStatus(status);
-        return new ResponseEntity<>(responses, HttpStatus.OK);
+    public ResponseEntity<ShipmentPage> getShipmentsByStatus(@PathVariable ShipmentStatus status,
+                                                             @RequestParam(required = false) String after,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "false") boolean countOnly) {
+        if (countOnly) {
+            return new ResponseEntity<>(shippingService.countShipmentsByStatus(status), HttpStatus.OK);
+        }
+        ShipmentCursor cursor;
+        try {
+            cursor = after == null ? null : ShipmentCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return new ResponseEntity<>(shippingService.getShipmentsByStatus(status, cursor, size), HttpStatus.OK);
     }
 
     @PutMapping("/{id}/status")
@@ -55,6 +90,16 @@ public class ShippingController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PutMapping("/status/batch")
+    public ResponseEntity<List<ShipmentStatusBatchItemResult>> updateShipmentStatuses(
+            @RequestBody List<ShipmentStatusBatchEntry> entries) {
+        if (entries.size() > maxBatchEntries) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<ShipmentStatusBatchItemResult> results = shippingService.updateShipmentStatuses(entries);
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<ShipmentResponse> cancelShipment(@PathVariable Long id) {
         ShipmentResponse response = shippingService.cancelShipment(id);
@@ -0,0 +1,161 @@
+package com.ecommerce.shipping.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Gives this replica a tracking number node id of its own through a lease row per node id.
+ * With {@code auto} it takes over a lease whose expiry has passed, or adds the next node id;
+ * an explicit number claims that node id and fails startup while another replica holds it.
+ * The lease is renewed on a schedule and tracking numbers are only issued while it is valid.
+ */
+@Component
+public class TrackingNodeAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackingNodeAllocator.class);
+
+    static final String AUTO = "auto";
+    private static final int CLAIM_ATTEMPTS = 5;
+
+    private final TrackingNodeLeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlMs;
+    private final String owner;
+    private final int nodeId;
+    private volatile long validUntil;
+
+    @Autowired
+    public TrackingNodeAllocator(TrackingNodeLeaseRepository leaseRepository, TransactionTemplate transactionTemplate,
+                                 @Value("${shipping.tracking.node-id:}") String nodeId,
+                                 @Value("${shipping.tracking.lease-ttl-ms:30000}") long ttlMs) {
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlMs = ttlMs;
+        this.owner = System.getenv().getOrDefault("HOSTNAME", "localhost") + "-" + UUID.randomUUID();
+        if (nodeId == null || nodeId.isBlank()) {
+            throw new IllegalStateException("shipping.tracking.node-id is not set; use " + AUTO
+                    + " to lease a node id, or a number from 0 to " + TrackingNumberGenerator.MAX_NODE_ID
+                    + " that no other replica uses");
+        }
+        this.nodeId = AUTO.equalsIgnoreCase(nodeId.trim()) ? claimAny() : claimExplicit(nodeId.trim());
+        log.info("Leased tracking node id {} as {}", this.nodeId, owner);
+    }
+
+    public int nodeId() {
+        return nodeId;
+    }
+
+    // Epoch millis up to which tracking numbers may be issued
+    public long validUntil() {
+        return validUntil;
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.tracking.lease-renew-ms:10000}")
+    public void renew() {
+        long current = validUntil;
+        if (current == 0) {
+            return; // lost or released
+        }
+        long expiresAt = Math.max(current, System.currentTimeMillis() + ttlMs);
+        try {
+            Integer renewed = transactionTemplate.execute(status ->
+                    leaseRepository.renew(nodeId, owner, expiresAt, LocalDateTime.now()));
+            if (renewed != null && renewed == 1) {
+                validUntil = expiresAt;
+            } else {
+                validUntil = 0;
+                log.error("Lost the lease on tracking node id {}; no tracking numbers are issued until restart", nodeId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not renew the lease on tracking node id {}; it stays valid until {}",
+                    nodeId, Instant.ofEpochMilli(current), e);
+        }
+    }
+
+    // Stops issuing before the generator reads its last timestamp for release()
+    void stopIssuing() {
+        validUntil = 0;
+    }
+
+    /**
+     * Releases the lease, recording the last issued timestamp as its expiry so the next
+     * owner still starts after it.
+     */
+    void release(long issuedUntil) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.release(nodeId, owner, issuedUntil, LocalDateTime.now()));
+        } catch (DataAccessException e) {
+            log.warn("Could not release tracking node id {}; it frees up when the lease expires", nodeId, e);
+        }
+    }
+
+    private int claimAny() {
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS; attempt++) {
+            long now = System.currentTimeMillis();
+            for (TrackingNodeLease lease : leaseRepository.findByExpiresAtLessThanOrderByNodeIdAsc(now, Limit.of(CLAIM_ATTEMPTS))) {
+                if (tryClaim(lease.getNodeId(), now)) {
+                    return lease.getNodeId();
+                }
+            }
+            // Every known node id is held: add the next one (node ids are added densely from 0)
+            int next = (int) leaseRepository.count();
+            if (next > TrackingNumberGenerator.MAX_NODE_ID) {
+                throw new IllegalStateException("All " + (TrackingNumberGenerator.MAX_NODE_ID + 1)
+                        + " tracking node ids are leased");
+            }
+            if (tryInsert(next, now)) {
+                return next;
+            }
+        }
+        throw new IllegalStateException("Could not lease a tracking node id in " + CLAIM_ATTEMPTS + " attempts");
+    }
+
+    private int claimExplicit(String value) {
+        int id = Integer.parseInt(value);
+        if (id < 0 || id > TrackingNumberGenerator.MAX_NODE_ID) {
+            throw new IllegalArgumentException("Tracking node id must be between 0 and "
+                    + TrackingNumberGenerator.MAX_NODE_ID + ": " + id);
+        }
+        long now = System.currentTimeMillis();
+        if (!tryClaim(id, now) && !tryInsert(id, now)) {
+            throw new IllegalStateException("Tracking node id " + id + " is leased by another replica, or was "
+                    + "used up to a time this host's clock has not reached yet");
+        }
+        return id;
+    }
+
+    // The lease only expires once this host's clock has passed every timestamp issued under it
+    private boolean tryClaim(int id, long now) {
+        Integer claimed = transactionTemplate.execute(status ->
+                leaseRepository.claim(id, owner, now, now + ttlMs, LocalDateTime.now()));
+        if (claimed != null && claimed == 1) {
+            validUntil = now + ttlMs;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean tryInsert(int id, long now) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.insert(id, owner, now + ttlMs, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            return false; // another replica added it first
+        }
+        validUntil = now + ttlMs;
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.shipping.id;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease on one tracking number node id. A replica only issues tracking numbers while it
+ * holds the lease and never with a timestamp past {@code expiresAt}, so the expiry is
+ * also the high-water mark the next owner of the node id must start after.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "tracking_node_leases")
+public class TrackingNodeLease {
+
+    @Id
+    private Integer nodeId;
+
+    private String owner; // null once released
+    private Long expiresAt; // epoch millis, on the owner's clock
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.shipping.id;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TrackingNodeLeaseRepository extends JpaRepository<TrackingNodeLease, Integer> {
+
+    List<TrackingNodeLease> findByExpiresAtLessThanOrderByNodeIdAsc(Long now, Limit limit);
+
+    // A plain INSERT, so a node id that another replica added first fails with a duplicate key instead of being merged
+    @Modifying
+    @Query(value = "INSERT INTO tracking_node_leases (node_id, owner, expires_at, updated_at) "
+            + "VALUES (:nodeId, :owner, :expiresAt, :updatedAt)", nativeQuery = true)
+    int insert(@Param("nodeId") Integer nodeId, @Param("owner") String owner,
+               @Param("expiresAt") long expiresAt, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Conditional takeover: only one replica's UPDATE matches a lease whose expiry has passed
+    @Modifying
+    @Query("UPDATE TrackingNodeLease l SET l.owner = :owner, l.expiresAt = :expiresAt, l.updatedAt = :updatedAt "
+            + "WHERE l.nodeId = :nodeId AND l.expiresAt < :now")
+    int claim(@Param("nodeId") Integer nodeId, @Param("owner") String owner, @Param("now") long now,
+              @Param("expiresAt") long expiresAt, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE TrackingNodeLease l SET l.expiresAt = :expiresAt, l.updatedAt = :updatedAt "
+            + "WHERE l.nodeId = :nodeId AND l.owner = :owner")
+    int renew(@Param("nodeId") Integer nodeId, @Param("owner") String owner,
+              @Param("expiresAt") long expiresAt, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Keeps the last issued timestamp as the expiry, so the next owner still starts after it
+    @Modifying
+    @Query("UPDATE TrackingNodeLease l SET l.owner = NULL, l.expiresAt = :issuedUntil, l.updatedAt = :updatedAt "
+            + "WHERE l.nodeId = :nodeId AND l.owner = :owner")
+    int release(@Param("nodeId") Integer nodeId, @Param("owner") String owner,
+                @Param("issuedUntil") long issuedUntil, @Param("updatedAt") LocalDateTime updatedAt);
+}
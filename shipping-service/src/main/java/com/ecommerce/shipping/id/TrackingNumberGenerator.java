@@ -0,0 +1,140 @@
+package com.ecommerce.shipping.id;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, Snowflake-style 64-bit ids rendered as Crockford base32 tracking numbers.
+ *
+ * Layout: 41 bits of milliseconds since 2024-01-01 (about 69 years), a 10-bit node id that
+ * must be unique per replica, and a 12-bit per-millisecond sequence. The last timestamp and
+ * sequence live in one AtomicLong updated by CAS, so threads never block each other. When a
+ * millisecond's 4096 sequence values run out, or the wall clock steps back, ids are taken
+ * from the following millisecond instead of waiting for the clock.
+ *
+ * The node id is leased by {@link TrackingNodeAllocator}, and no id is issued with a timestamp
+ * past the lease. The next owner of the node id only gets it once its clock has passed that
+ * point, so a restart with a clock that stepped back cannot repeat an id.
+ */
+@Component
+public class TrackingNumberGenerator {
+
+    public static final String PREFIX = "TRK-";
+    static final long EPOCH_MS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // 63 significant bits need 13 base32 digits; fixed width keeps string order equal to id order
+    private static final int DIGITS = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final TrackingNodeAllocator allocator; // null when the node id was given directly
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    @Autowired
+    public TrackingNumberGenerator(TrackingNodeAllocator allocator) {
+        this(allocator.nodeId(), allocator);
+    }
+
+    public TrackingNumberGenerator(long nodeId) {
+        this(nodeId, null);
+    }
+
+    private TrackingNumberGenerator(long nodeId, TrackingNodeAllocator allocator) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Tracking node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+        this.allocator = allocator;
+    }
+
+    public long nextId() {
+        while (true) {
+            long last = lastTimestampAndSequence.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH_MS;
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else {
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            }
+            if (lastTimestampAndSequence.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                // Checked after the CAS, so an issued id is always covered by the timestamp release() records
+                if (allocator != null && timestamp + EPOCH_MS > allocator.validUntil()) {
+                    throw new IllegalStateException("No valid lease on tracking node id " + (nodeBits >>> SEQUENCE_BITS));
+                }
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void releaseNode() {
+        if (allocator != null) {
+            allocator.stopIssuing();
+            allocator.release((lastTimestampAndSequence.get() >>> SEQUENCE_BITS) + EPOCH_MS);
+        }
+    }
+
+    public String next() {
+        return encode(nextId());
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[PREFIX.length() + DIGITS];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parses a tracking number produced by {@link #encode}; returns -1 when it is not one.
+     */
+    public static long decode(String trackingNumber) {
+        if (trackingNumber == null || trackingNumber.length() != PREFIX.length() + DIGITS
+                || !trackingNumber.startsWith(PREFIX)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < trackingNumber.length(); i++) {
+            int digit = digitOf(trackingNumber.charAt(i));
+            // The leading digit only carries 3 of the 63 significant bits
+            if (digit < 0 || (i == PREFIX.length() && digit > 7)) {
+                return -1;
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+
+    public static long epochMillisOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    private static int digitOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.shipping.messaging;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.EventCodec;
+import com.ecommerce.events.PaymentBatchProcessed;
+import com.ecommerce.events.PaymentProcessed;
+import com.ecommerce.shipping.model.ShipmentRequest;
+import com.ecommerce.shipping.service.ShippingService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates a shipment for every completed payment. Each poll is handled as one batch:
+ * shipments are saved in one transaction and the offsets are acknowledged only after
+ * it has committed. Processing is idempotent per order, so redelivery is harmless.
+ *
+ * An undecodable record fails the batch at its index: the records before it are
+ * processed, the error handler sends it to the dead-letter topic and the records after
+ * it are delivered again. Any other failure, such as the database being unavailable,
+ * is retried with the whole batch and never dead-lettered.
+ */
+@Component
+public class PaymentEventsListener {
+
+    private final ShippingService shippingService;
+    private final String defaultCarrier;
+
+    @Autowired
+    public PaymentEventsListener(ShippingService shippingService,
+                                 @Value("${shipping.payment-events.default-carrier:standard}") String defaultCarrier) {
+        this.shippingService = shippingService;
+        this.defaultCarrier = defaultCarrier;
+    }
+
+    @KafkaListener(topics = "${shipping.payment-events.topic:payment-events}",
+            containerFactory = "paymentEventsListenerContainerFactory",
+            autoStartup = "${shipping.payment-events.enabled:true}",
+            properties = {
+                    "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer",
+                    "max.poll.records=${shipping.payment-events.max-poll-records:500}"
+            })
+    public void onPaymentEvents(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        List<ShipmentRequest> requests = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            DomainEvent event;
+            try {
+                event = records.get(i).value() == null ? null : EventCodec.decode(records.get(i).value());
+            } catch (RuntimeException e) {
+                // Any decoding failure is a malformed payload, which the error handler does not retry
+                IllegalArgumentException malformed = e instanceof IllegalArgumentException iae
+                        ? iae : new IllegalArgumentException("Malformed payment event", e);
+                shippingService.createShipmentsForOrders(requests);
+                throw new BatchListenerFailedException("Undecodable payment event", malformed, i);
+            }
+            if (event instanceof PaymentProcessed payment) {
+                requests.add(toShipmentRequest(payment));
+            } else if (event instanceof PaymentBatchProcessed batch) {
+                for (PaymentProcessed payment : batch.payments()) {
+                    requests.add(toShipmentRequest(payment));
+                }
+            }
+        }
+        shippingService.createShipmentsForOrders(requests);
+        acknowledgment.acknowledge();
+    }
+
+    private ShipmentRequest toShipmentRequest(PaymentProcessed payment) {
+        return new ShipmentRequest(payment.orderId(), defaultCarrier, null,
+                "Created from payment " + payment.paymentId());
+    }
+}
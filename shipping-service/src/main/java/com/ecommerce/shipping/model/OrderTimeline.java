@@ -0,0 +1,17 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTimeline {
+    private Long orderId;
+    private List<ShipmentTracking> shipments;
+    private List<TimelineEvent> events; // oldest first
+    private String message;
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,7 +16,13 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "shipments")
+// (status, updatedAt, id) serves the keyset-paginated status listing and index-only status counts;
+// an order has at most one shipment; trackingNumber is unique and serves tracking lookups and carrier status batches
+@Table(name = "shipments", indexes = {
+        @Index(name = "idx_shipments_status_updated_at", columnList = "status, updatedAt, id"),
+        @Index(name = "uk_shipments_order_id", columnList = "orderId", unique = true),
+        @Index(name = "uk_shipments_tracking_number", columnList = "trackingNumber", unique = true)
+})
 public class Shipment {
     
     @Id
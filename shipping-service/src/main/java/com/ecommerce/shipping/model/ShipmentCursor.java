@@ -0,0 +1,33 @@
+package com.ecommerce.shipping.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the status listing: the last row's update time and id. Clients treat the
+ * encoded form as opaque and pass it back as {@code ?after=}.
+ */
+public record ShipmentCursor(LocalDateTime updatedAt, Long id) {
+
+    public static ShipmentCursor of(Shipment shipment) {
+        return new ShipmentCursor(shipment.getUpdatedAt(), shipment.getId());
+    }
+
+    public String encode() {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ShipmentCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ShipmentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + encoded, e);
+        }
+    }
+}
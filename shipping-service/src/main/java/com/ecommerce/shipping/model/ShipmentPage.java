@@ -0,0 +1,17 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentPage {
+    private List<ShipmentResponse> items;
+    private String nextCursor; // pass as ?after= to fetch the next page; null on the last page
+    private Long count; // only set in count-only mode, where items is empty
+    private String message;
+}
@@ -7,5 +7,20 @@ public enum ShipmentStatus {
     IN_TRANSIT,
     DELIVERED,
     RETURNED,
-    CANCELLED
-} 
\ No newline at end of file
+    CANCELLED;
+
+    /**
+     * Forward-only lifecycle: PENDING through DELIVERED may skip steps but never go back,
+     * CANCELLED is only reachable before shipping, RETURNED only after, and both are final.
+     */
+    public boolean canAdvanceTo(ShipmentStatus next) {
+        switch (next) {
+            case CANCELLED:
+                return this == PENDING || this == PROCESSING;
+            case RETURNED:
+                return this == SHIPPED || this == IN_TRANSIT || this == DELIVERED;
+            default:
+                return ordinal() < next.ordinal();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentStatusBatchEntry {
+    private Long shipmentId; // either shipmentId or trackingNumber identifies the shipment
+    private String trackingNumber;
+    private ShipmentStatus status;
+    private Instant timestamp; // when the carrier observed the change; defaults to now
+    private String notes;
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentStatusBatchItemResult {
+    private Long shipmentId;
+    private String trackingNumber;
+    private ShipmentStatusBatchOutcome outcome;
+    private ShipmentResponse shipment;
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.shipping.model;
+
+public enum ShipmentStatusBatchOutcome {
+    UPDATED,
+    UNCHANGED,
+    REJECTED,
+    NOT_FOUND
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShipmentTracking {
+    private Long shipmentId;
+    private Long orderId;
+    private String trackingNumber;
+    private String carrierName;
+    private ShipmentStatus status;
+    private LocalDateTime statusSince;
+    private LocalDateTime createdAt;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+    private String notes;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.shipping.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEvent {
+    private Long shipmentId;
+    private String trackingNumber;
+    private ShipmentStatus status;
+    private LocalDateTime occurredAt;
+    private String notes;
+}
@@ -2,13 +2,51 @@ package com.ecommerce.shipping.repository;
 
 import com.ecommerce.shipping.model.Shipment;
 import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     List<Shipment> findByOrderId(Long orderId);
+    List<Shipment> findByOrderIdIn(Collection<Long> orderIds);
+    Optional<Shipment> findByTrackingNumber(String trackingNumber);
+
+    // Id-ordered pages of tracking numbers, for loading the in-memory tracking number index
+    List<ShipmentTrackingNumber> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
     List<Shipment> findByStatus(ShipmentStatus status);
+
+    // First page of the status listing, oldest update first
+    List<Shipment> findByStatusOrderByUpdatedAtAscIdAsc(ShipmentStatus status, Limit limit);
+
+    // Pages after a (updatedAt, id) cursor; the OR form lets MariaDB turn it into a range on the status index
+    @Query("SELECT s FROM Shipment s WHERE s.status = :status "
+            + "AND (s.updatedAt > :updatedAt OR (s.updatedAt = :updatedAt AND s.id > :id)) "
+            + "ORDER BY s.updatedAt, s.id")
+    List<Shipment> findByStatusAfter(@Param("status") ShipmentStatus status, @Param("updatedAt") LocalDateTime updatedAt,
+                                     @Param("id") Long id, Limit limit);
+
+    long countByStatus(ShipmentStatus status);
+
+    // Status changes read the row with SELECT ... FOR UPDATE, so concurrent changes to a shipment apply one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Shipment s WHERE s.id = :id")
+    Optional<Shipment> findByIdForUpdate(@Param("id") Long id);
+
+    // Locks every shipment referenced by a status batch in one round trip, in id order to avoid deadlocks
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Shipment> findByIdInOrTrackingNumberInOrderByIdAsc(Collection<Long> ids, Collection<String> trackingNumbers);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Shipment> findByIdInOrderByIdAsc(Collection<Long> ids);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Shipment> findByTrackingNumberInOrderByIdAsc(Collection<String> trackingNumbers);
 } 
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.ecommerce.shipping.repository;
+
+/**
+ * Projection used to load tracking numbers without materializing whole shipments.
+ */
+public interface ShipmentTrackingNumber {
+    Long getId();
+    String getTrackingNumber();
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.shipping.service;
+
+import com.ecommerce.shipping.model.OrderTimeline;
+import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentTracking;
+import com.ecommerce.shipping.timeline.CarrierStatusCount;
+import com.ecommerce.shipping.timeline.TimeInStateBucket;
+
+import java.util.List;
+
+/**
+ * Tracking reads served from the projections of the shipment event log.
+ */
+public interface ShipmentTrackingService {
+    ShipmentTracking getTracking(Long shipmentId);
+    OrderTimeline getOrderTimeline(Long orderId);
+    List<CarrierStatusCount> getCarrierStatusCounts();
+    List<TimeInStateBucket> getTimeInStateHistogram(ShipmentStatus status);
+    void rebuildProjections();
+}
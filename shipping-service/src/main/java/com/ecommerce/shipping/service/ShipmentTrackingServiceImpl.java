@@ -0,0 +1,127 @@
+package com.ecommerce.shipping.service;
+
+import com.ecommerce.shipping.model.OrderTimeline;
+import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentTracking;
+import com.ecommerce.shipping.model.TimelineEvent;
+import com.ecommerce.shipping.repository.ShipmentRepository;
+import com.ecommerce.shipping.timeline.CarrierStatusCount;
+import com.ecommerce.shipping.timeline.CarrierStatusCountRepository;
+import com.ecommerce.shipping.timeline.OrderTimelineEntryRepository;
+import com.ecommerce.shipping.timeline.ShipmentProjector;
+import com.ecommerce.shipping.timeline.ShipmentTrackingView;
+import com.ecommerce.shipping.timeline.ShipmentTrackingViewRepository;
+import com.ecommerce.shipping.timeline.TimeInStateBucket;
+import com.ecommerce.shipping.timeline.TimeInStateBucketRepository;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ShipmentTrackingServiceImpl implements ShipmentTrackingService {
+
+    private final ShipmentTrackingViewRepository trackingViewRepository;
+    private final OrderTimelineEntryRepository timelineEntryRepository;
+    private final CarrierStatusCountRepository carrierStatusCountRepository;
+    private final TimeInStateBucketRepository timeInStateBucketRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentProjector shipmentProjector;
+
+    @Autowired
+    public ShipmentTrackingServiceImpl(ShipmentTrackingViewRepository trackingViewRepository,
+                                       OrderTimelineEntryRepository timelineEntryRepository,
+                                       CarrierStatusCountRepository carrierStatusCountRepository,
+                                       TimeInStateBucketRepository timeInStateBucketRepository,
+                                       ShipmentRepository shipmentRepository,
+                                       ShipmentProjector shipmentProjector) {
+        this.trackingViewRepository = trackingViewRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.carrierStatusCountRepository = carrierStatusCountRepository;
+        this.timeInStateBucketRepository = timeInStateBucketRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.shipmentProjector = shipmentProjector;
+    }
+
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "getTrackingFallback")
+    @RateLimiter(name = "shippingService")
+    public ShipmentTracking getTracking(Long shipmentId) {
+        // Shipments the projector has not reached yet (or that predate the log) come from the write table
+        return trackingViewRepository.findById(shipmentId)
+                .map(view -> mapToTracking(view, "Tracking retrieved successfully"))
+                .orElseGet(() -> shipmentRepository.findById(shipmentId)
+                        .map(shipment -> mapToTracking(shipment, "Tracking retrieved successfully"))
+                        .orElseThrow(() -> new RuntimeException("Shipment not found with ID: " + shipmentId)));
+    }
+
+    public ShipmentTracking getTrackingFallback(Long shipmentId, Exception e) {
+        ShipmentTracking tracking = new ShipmentTracking();
+        tracking.setShipmentId(shipmentId);
+        tracking.setMessage("Shipping service is currently unavailable. Please try again later.");
+        return tracking;
+    }
+
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "getOrderTimelineFallback")
+    @RateLimiter(name = "shippingService")
+    public OrderTimeline getOrderTimeline(Long orderId) {
+        List<ShipmentTracking> shipments = trackingViewRepository.findByOrderId(orderId).stream()
+                .map(view -> mapToTracking(view, null))
+                .collect(Collectors.toList());
+        List<TimelineEvent> events = timelineEntryRepository.findByOrderIdOrderByOccurredAtAscEventIdAsc(orderId).stream()
+                .map(entry -> new TimelineEvent(entry.getShipmentId(), entry.getTrackingNumber(), entry.getStatus(),
+                        entry.getOccurredAt(), entry.getNotes()))
+                .collect(Collectors.toList());
+        return new OrderTimeline(orderId, shipments, events, "Timeline retrieved successfully");
+    }
+
+    public OrderTimeline getOrderTimelineFallback(Long orderId, Exception e) {
+        return new OrderTimeline(orderId, List.of(), List.of(), "Shipping service is currently unavailable. Please try again later.");
+    }
+
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "getCarrierStatusCountsFallback")
+    @RateLimiter(name = "shippingService")
+    public List<CarrierStatusCount> getCarrierStatusCounts() {
+        return carrierStatusCountRepository.findAllByOrderByCarrierNameAscStatusAsc();
+    }
+
+    public List<CarrierStatusCount> getCarrierStatusCountsFallback(Exception e) {
+        return List.of();
+    }
+
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "getTimeInStateHistogramFallback")
+    @RateLimiter(name = "shippingService")
+    public List<TimeInStateBucket> getTimeInStateHistogram(ShipmentStatus status) {
+        return status == null
+                ? timeInStateBucketRepository.findAllByOrderByStatusAscBucketIndexAsc()
+                : timeInStateBucketRepository.findByStatusOrderByBucketIndexAsc(status);
+    }
+
+    public List<TimeInStateBucket> getTimeInStateHistogramFallback(ShipmentStatus status, Exception e) {
+        return List.of();
+    }
+
+    @Override
+    public void rebuildProjections() {
+        shipmentProjector.rebuild();
+    }
+
+    private static ShipmentTracking mapToTracking(ShipmentTrackingView view, String message) {
+        return new ShipmentTracking(view.getShipmentId(), view.getOrderId(), view.getTrackingNumber(),
+                view.getCarrierName(), view.getStatus(), view.getStatusSince(), view.getCreatedAt(),
+                view.getShippedAt(), view.getDeliveredAt(), view.getNotes(), message);
+    }
+
+    private static ShipmentTracking mapToTracking(Shipment shipment, String message) {
+        return new ShipmentTracking(shipment.getId(), shipment.getOrderId(), shipment.getTrackingNumber(),
+                shipment.getCarrierName(), shipment.getStatus(), shipment.getUpdatedAt(), shipment.getCreatedAt(),
+                shipment.getShippedAt(), shipment.getDeliveredAt(), shipment.getNotes(), message);
+    }
+}
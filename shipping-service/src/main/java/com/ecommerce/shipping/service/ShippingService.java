@@ -1,17 +1,25 @@
 package com.ecommerce.shipping.service;
 
+import com.ecommerce.shipping.model.ShipmentCursor;
+import com.ecommerce.shipping.model.ShipmentPage;
 import com.ecommerce.shipping.model.ShipmentRequest;
 import com.ecommerce.shipping.model.ShipmentResponse;
 import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentStatusBatchEntry;
+import com.ecommerce.shipping.model.ShipmentStatusBatchItemResult;
 import com.ecommerce.shipping.model.ShipmentStatusUpdateRequest;
 
 import java.util.List;
 
 public interface ShippingService {
     ShipmentResponse createShipment(ShipmentRequest shipmentRequest);
+    int createShipmentsForOrders(List<ShipmentRequest> shipmentRequests);
     ShipmentResponse getShipmentById(Long shipmentId);
+    ShipmentResponse getShipmentByTrackingNumber(String trackingNumber);
     List<ShipmentResponse> getShipmentsByOrderId(Long orderId);
-    List<ShipmentResponse> getShipmentsByStatus(ShipmentStatus status);
+    ShipmentPage getShipmentsByStatus(ShipmentStatus status, ShipmentCursor after, Integer size);
+    ShipmentPage countShipmentsByStatus(ShipmentStatus status);
     ShipmentResponse updateShipmentStatus(Long shipmentId, ShipmentStatusUpdateRequest updateRequest);
+    List<ShipmentStatusBatchItemResult> updateShipmentStatuses(List<ShipmentStatusBatchEntry> entries);
     ShipmentResponse cancelShipment(Long shipmentId);
 } 
\ No newline at end of file
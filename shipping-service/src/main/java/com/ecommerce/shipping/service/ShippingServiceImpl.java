@@ -1,34 +1,79 @@
 package com.ecommerce.shipping.service;
 
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.ShipmentCancelled;
+import com.ecommerce.events.ShipmentCreated;
+import com.ecommerce.events.ShipmentStatusBatchChanged;
+import com.ecommerce.events.ShipmentStatusChanged;
+import com.ecommerce.outbox.OutboxService;
+import com.ecommerce.shipping.id.TrackingNumberGenerator;
 import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentCursor;
+import com.ecommerce.shipping.model.ShipmentPage;
 import com.ecommerce.shipping.model.ShipmentRequest;
 import com.ecommerce.shipping.model.ShipmentResponse;
 import com.ecommerce.shipping.model.ShipmentStatus;
+import com.ecommerce.shipping.model.ShipmentStatusBatchEntry;
+import com.ecommerce.shipping.model.ShipmentStatusBatchItemResult;
+import com.ecommerce.shipping.model.ShipmentStatusBatchOutcome;
 import com.ecommerce.shipping.model.ShipmentStatusUpdateRequest;
 import com.ecommerce.shipping.repository.ShipmentRepository;
+import com.ecommerce.shipping.timeline.ShipmentEvent;
+import com.ecommerce.shipping.timeline.ShipmentEventLog;
+import com.ecommerce.shipping.tracking.TrackingNumberIndex;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ShippingServiceImpl implements ShippingService {
 
     private final ShipmentRepository shipmentRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxService outboxService;
+    private final ShipmentEventLog shipmentEventLog;
+    private final TrackingNumberGenerator trackingNumberGenerator;
+    private final TrackingNumberIndex trackingNumberIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public ShippingServiceImpl(ShipmentRepository shipmentRepository, KafkaTemplate<String, String> kafkaTemplate) {
+    public ShippingServiceImpl(ShipmentRepository shipmentRepository, OutboxService outboxService,
+                               ShipmentEventLog shipmentEventLog, TrackingNumberGenerator trackingNumberGenerator,
+                               TrackingNumberIndex trackingNumberIndex, TransactionTemplate transactionTemplate,
+                               @Value("${shipping.listing.default-page-size:100}") int defaultPageSize,
+                               @Value("${shipping.listing.max-page-size:1000}") int maxPageSize) {
         this.shipmentRepository = shipmentRepository;
-        this.kafkaTemplate = kafkaTemplate;
+        this.outboxService = outboxService;
+        this.shipmentEventLog = shipmentEventLog;
+        this.trackingNumberGenerator = trackingNumberGenerator;
+        this.trackingNumberIndex = trackingNumberIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
@@ -37,22 +82,23 @@ public class ShippingServiceImpl implements ShippingService {
     @Retry(name = "shippingService")
     public ShipmentResponse createShipment(ShipmentRequest shipmentRequest) {
         try {
-            Shipment shipment = new Shipment();
-            shipment.setOrderId(shipmentRequest.getOrderId());
-            shipment.setTrackingNumber(generateTrackingNumber());
-            shipment.setCarrierName(shipmentRequest.getCarrierName());
-            shipment.setStatus(ShipmentStatus.PENDING);
-            shipment.setShippingAddress(shipmentRequest.getShippingAddress());
-            shipment.setCreatedAt(LocalDateTime.now());
-            shipment.setUpdatedAt(LocalDateTime.now());
-            shipment.setNotes(shipmentRequest.getNotes());
+            Shipment shipment = newShipment(shipmentRequest, LocalDateTime.now());
             
-            shipment = shipmentRepository.save(shipment);
-            
-            // Notify other services about the new shipment
-            kafkaTemplate.send("shipping-events", "Shipment created: " + shipment.getId());
+            shipment = saveAndPublish(shipment, null, saved -> new ShipmentCreated(saved.getId(), saved.getOrderId(),
+                    saved.getTrackingNumber(), saved.getCarrierName(), Instant.now()));
             
             return mapToShipmentResponse(shipment, "Shipment created successfully");
+        } catch (DataIntegrityViolationException e) {
+            // The order already has a shipment, e.g. one created from its payment event
+            List<Shipment> existing = shipmentRequest.getOrderId() == null
+                    ? List.of() : shipmentRepository.findByOrderId(shipmentRequest.getOrderId());
+            if (!existing.isEmpty()) {
+                return mapToShipmentResponse(existing.get(0), "Order already has a shipment");
+            }
+            return new ShipmentResponse(null, shipmentRequest.getOrderId(), null, 
+                    shipmentRequest.getCarrierName(), ShipmentStatus.PENDING, 
+                    shipmentRequest.getShippingAddress(), null, null, null, null, 
+                    shipmentRequest.getNotes(), "Error creating shipment: " + e.getMessage());
         } catch (Exception e) {
             return new ShipmentResponse(null, shipmentRequest.getOrderId(), null, 
                     shipmentRequest.getCarrierName(), ShipmentStatus.PENDING, 
@@ -68,6 +114,56 @@ public class ShippingServiceImpl implements ShippingService {
                 shipmentRequest.getNotes(), "Shipping service is currently unavailable. Please try again later.");
     }
 
+    // No resilience fallback here: failures must reach the Kafka error handler so the batch is retried
+    @Override
+    public int createShipmentsForOrders(List<ShipmentRequest> shipmentRequests) {
+        Map<Long, ShipmentRequest> byOrderId = new LinkedHashMap<>();
+        for (ShipmentRequest request : shipmentRequests) {
+            if (request.getOrderId() != null) {
+                byOrderId.putIfAbsent(request.getOrderId(), request);
+            }
+        }
+        if (byOrderId.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return createShipments(byOrderId);
+        } catch (DataIntegrityViolationException e) {
+            // Another consumer or a direct POST created one of these orders' shipments since the check; the
+            // unique order index rolled the batch back, and the second pass skips the orders it now finds
+            return createShipments(byOrderId);
+        }
+    }
+
+    private int createShipments(Map<Long, ShipmentRequest> byOrderId) {
+        Integer created = transactionTemplate.execute(status -> {
+            // Redelivered payment events must not create a second shipment for the same order
+            for (Shipment existing : shipmentRepository.findByOrderIdIn(byOrderId.keySet())) {
+                byOrderId.remove(existing.getOrderId());
+            }
+            if (byOrderId.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<Shipment> shipments = byOrderId.values().stream()
+                    .map(request -> newShipment(request, now))
+                    .collect(Collectors.toList());
+
+            List<Shipment> saved = shipmentRepository.saveAll(shipments);
+            List<ShipmentEvent> logged = new ArrayList<>(saved.size());
+            for (Shipment shipment : saved) {
+                outboxService.enqueue("shipping-events", String.valueOf(shipment.getId()),
+                        new ShipmentCreated(shipment.getId(), shipment.getOrderId(), shipment.getTrackingNumber(),
+                                shipment.getCarrierName(), Instant.now()));
+                logged.add(ShipmentEventLog.toEvent(shipment, null, now, now));
+            }
+            shipmentEventLog.appendAll(logged);
+            return saved.size();
+        });
+        return created == null ? 0 : created;
+    }
+
     @Override
     @CircuitBreaker(name = "shippingService", fallbackMethod = "getShipmentByIdFallback")
     @RateLimiter(name = "shippingService")
@@ -84,6 +180,23 @@ public class ShippingServiceImpl implements ShippingService {
         return response;
     }
 
+    // Returns null for an unknown tracking number, which is not a failure of the service
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "getShipmentByTrackingNumberFallback")
+    @RateLimiter(name = "shippingService")
+    public ShipmentResponse getShipmentByTrackingNumber(String trackingNumber) {
+        return shipmentRepository.findByTrackingNumber(trackingNumber)
+                .map(shipment -> mapToShipmentResponse(shipment, "Shipment retrieved successfully"))
+                .orElse(null);
+    }
+
+    public ShipmentResponse getShipmentByTrackingNumberFallback(String trackingNumber, Exception e) {
+        ShipmentResponse response = new ShipmentResponse();
+        response.setTrackingNumber(trackingNumber);
+        response.setMessage("Shipping service is currently unavailable. Please try again later.");
+        return response;
+    }
+
     @Override
     @CircuitBreaker(name = "shippingService", fallbackMethod = "getShipmentsByOrderIdFallback")
     @RateLimiter(name = "shippingService")
@@ -104,18 +217,38 @@ public class ShippingServiceImpl implements ShippingService {
     @Override
     @CircuitBreaker(name = "shippingService", fallbackMethod = "getShipmentsByStatusFallback")
     @RateLimiter(name = "shippingService")
-    public List<ShipmentResponse> getShipmentsByStatus(ShipmentStatus status) {
-        List<Shipment> shipments = shipmentRepository.findByStatus(status);
-        return shipments.stream()
+    public ShipmentPage getShipmentsByStatus(ShipmentStatus status, ShipmentCursor after, Integer size) {
+        int pageSize = Math.min(size == null ? defaultPageSize : Math.max(size, 1), maxPageSize);
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+        List<Shipment> shipments = after == null
+                ? shipmentRepository.findByStatusOrderByUpdatedAtAscIdAsc(status, limit)
+                : shipmentRepository.findByStatusAfter(status, after.updatedAt(), after.id(), limit);
+
+        String nextCursor = null;
+        if (shipments.size() > pageSize) {
+            shipments = shipments.subList(0, pageSize);
+            nextCursor = ShipmentCursor.of(shipments.get(pageSize - 1)).encode();
+        }
+        List<ShipmentResponse> items = shipments.stream()
                 .map(shipment -> mapToShipmentResponse(shipment, "Shipments retrieved successfully"))
                 .collect(Collectors.toList());
+        return new ShipmentPage(items, nextCursor, null, "Shipments retrieved successfully");
     }
 
-    public List<ShipmentResponse> getShipmentsByStatusFallback(ShipmentStatus status, Exception e) {
-        ShipmentResponse response = new ShipmentResponse();
-        response.setStatus(status);
-        response.setMessage("Shipping service is currently unavailable. Please try again later.");
-        return List.of(response);
+    public ShipmentPage getShipmentsByStatusFallback(ShipmentStatus status, ShipmentCursor after, Integer size, Exception e) {
+        return new ShipmentPage(List.of(), null, null, "Shipping service is currently unavailable. Please try again later.");
+    }
+
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "countShipmentsByStatusFallback")
+    @RateLimiter(name = "shippingService")
+    public ShipmentPage countShipmentsByStatus(ShipmentStatus status) {
+        return new ShipmentPage(List.of(), null, shipmentRepository.countByStatus(status), "Shipments counted successfully");
+    }
+
+    public ShipmentPage countShipmentsByStatusFallback(ShipmentStatus status, Exception e) {
+        return new ShipmentPage(List.of(), null, null, "Shipping service is currently unavailable. Please try again later.");
     }
 
     @Override
@@ -124,29 +257,26 @@ public class ShippingServiceImpl implements ShippingService {
     @Retry(name = "shippingService")
     public ShipmentResponse updateShipmentStatus(Long shipmentId, ShipmentStatusUpdateRequest updateRequest) {
         try {
-            Shipment shipment = shipmentRepository.findById(shipmentId)
-                    .orElseThrow(() -> new RuntimeException("Shipment not found with ID: " + shipmentId));
-            
-            shipment.setStatus(updateRequest.getStatus());
-            shipment.setUpdatedAt(LocalDateTime.now());
-            
-            if (updateRequest.getNotes() != null) {
-                shipment.setNotes(updateRequest.getNotes());
-            }
-            
-            // Update specific timestamps based on the status
-            if (updateRequest.getStatus() == ShipmentStatus.SHIPPED) {
-                shipment.setShippedAt(LocalDateTime.now());
-            } else if (updateRequest.getStatus() == ShipmentStatus.DELIVERED) {
-                shipment.setDeliveredAt(LocalDateTime.now());
-            }
-            
-            shipment = shipmentRepository.save(shipment);
-            
-            // Notify other services about the status update
-            kafkaTemplate.send("shipping-events", "Shipment status updated: " + shipment.getId() + ", Status: " + shipment.getStatus());
-            
-            return mapToShipmentResponse(shipment, "Shipment status updated successfully");
+            return transactionTemplate.execute(status -> {
+                Shipment shipment = shipmentRepository.findByIdForUpdate(shipmentId)
+                        .orElseThrow(() -> new RuntimeException("Shipment not found with ID: " + shipmentId));
+
+                ShipmentStatus previousStatus = shipment.getStatus();
+                ShipmentStatus nextStatus = updateRequest.getStatus();
+                if (previousStatus == nextStatus) {
+                    return mapToShipmentResponse(shipment, "Shipment is already " + previousStatus);
+                }
+                // Same lifecycle rules as the carrier batches
+                if (nextStatus == null || !previousStatus.canAdvanceTo(nextStatus)) {
+                    return mapToShipmentResponse(shipment,
+                            "Cannot change shipment status from " + previousStatus + " to " + nextStatus);
+                }
+                applyStatus(shipment, nextStatus, LocalDateTime.now(), updateRequest.getNotes());
+
+                Shipment updated = saveAndPublish(shipment, previousStatus, saved -> new ShipmentStatusChanged(saved.getId(),
+                        saved.getOrderId(), nameOf(previousStatus), nameOf(saved.getStatus()), Instant.now()));
+                return mapToShipmentResponse(updated, "Shipment status updated successfully");
+            });
         } catch (Exception e) {
             return new ShipmentResponse(shipmentId, null, null, null, updateRequest.getStatus(), 
                     null, null, null, null, null, updateRequest.getNotes(), 
@@ -162,31 +292,121 @@ public class ShippingServiceImpl implements ShippingService {
         return response;
     }
 
+    @Override
+    @CircuitBreaker(name = "shippingService", fallbackMethod = "updateShipmentStatusesFallback")
+    @RateLimiter(name = "shippingService")
+    public List<ShipmentStatusBatchItemResult> updateShipmentStatuses(List<ShipmentStatusBatchEntry> entries) {
+        ShipmentStatusBatchItemResult[] results = new ShipmentStatusBatchItemResult[entries.size()];
+        Set<Long> ids = new HashSet<>();
+        Set<String> trackingNumbers = new HashSet<>();
+        List<Integer> pending = new ArrayList<>();
+        Instant now = Instant.now();
+
+        for (int i = 0; i < entries.size(); i++) {
+            ShipmentStatusBatchEntry entry = entries.get(i);
+            if (entry.getStatus() == null || (entry.getShipmentId() == null && entry.getTrackingNumber() == null)) {
+                results[i] = batchResult(entry, ShipmentStatusBatchOutcome.REJECTED, null,
+                        "A status and a shipment id or tracking number are required");
+            } else {
+                if (entry.getShipmentId() != null) {
+                    ids.add(entry.getShipmentId());
+                } else {
+                    trackingNumbers.add(entry.getTrackingNumber());
+                }
+                pending.add(i);
+            }
+        }
+        // Changes to the same shipment are applied in the order the carrier observed them
+        pending.sort(Comparator.comparing(i -> timestampOf(entries.get(i), now)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Shipment> byId = new HashMap<>();
+            Map<String, Shipment> byTrackingNumber = new HashMap<>();
+            for (Shipment shipment : findShipments(ids, trackingNumbers)) {
+                byId.put(shipment.getId(), shipment);
+                byTrackingNumber.put(shipment.getTrackingNumber(), shipment);
+            }
+
+            Map<Long, Shipment> updated = new LinkedHashMap<>();
+            Map<Long, List<ShipmentStatusChanged>> changes = new LinkedHashMap<>();
+            List<ShipmentEvent> logged = new ArrayList<>();
+            LocalDateTime recordedAt = LocalDateTime.now();
+            for (int i : pending) {
+                ShipmentStatusBatchEntry entry = entries.get(i);
+                Shipment shipment = entry.getShipmentId() != null
+                        ? byId.get(entry.getShipmentId())
+                        : byTrackingNumber.get(entry.getTrackingNumber());
+                Instant observedAt = timestampOf(entry, now);
+                LocalDateTime at = LocalDateTime.ofInstant(observedAt, ZoneId.systemDefault());
+                if (shipment == null) {
+                    results[i] = batchResult(entry, ShipmentStatusBatchOutcome.NOT_FOUND, null, "Shipment not found");
+                } else if (shipment.getStatus() == entry.getStatus()) {
+                    results[i] = batchResult(entry, ShipmentStatusBatchOutcome.UNCHANGED, shipment,
+                            "Shipment is already " + shipment.getStatus());
+                } else if (shipment.getUpdatedAt() != null && at.isBefore(shipment.getUpdatedAt())) {
+                    results[i] = batchResult(entry, ShipmentStatusBatchOutcome.REJECTED, shipment,
+                            "Status change is older than the last update of the shipment");
+                } else if (!shipment.getStatus().canAdvanceTo(entry.getStatus())) {
+                    results[i] = batchResult(entry, ShipmentStatusBatchOutcome.REJECTED, shipment,
+                            "Cannot change shipment status from " + shipment.getStatus() + " to " + entry.getStatus());
+                } else {
+                    ShipmentStatus previousStatus = shipment.getStatus();
+                    applyStatus(shipment, entry.getStatus(), at, entry.getNotes());
+                    updated.put(shipment.getId(), shipment);
+                    logged.add(ShipmentEventLog.toEvent(shipment, previousStatus, at, recordedAt));
+                    changes.computeIfAbsent(shipment.getId(), id -> new ArrayList<>()).add(new ShipmentStatusChanged(
+                            shipment.getId(), shipment.getOrderId(), nameOf(previousStatus), nameOf(shipment.getStatus()),
+                            observedAt));
+                    results[i] = batchResult(entry, ShipmentStatusBatchOutcome.UPDATED, shipment,
+                            "Shipment status updated successfully");
+                }
+            }
+
+            // The loaded rows are managed, so these flush as JDBC-batched UPDATEs at commit
+            shipmentRepository.saveAll(updated.values());
+            shipmentEventLog.appendAll(logged);
+            // Keyed by shipment id like the single updates, so a shipment's events stay on one partition in order.
+            // Several changes to one shipment in the batch travel as one record.
+            changes.forEach((shipmentId, shipmentChanges) -> outboxService.enqueue("shipping-events", String.valueOf(shipmentId),
+                    shipmentChanges.size() == 1
+                            ? shipmentChanges.get(0)
+                            : new ShipmentStatusBatchChanged(shipmentChanges, Instant.now())));
+        });
+        return Arrays.asList(results);
+    }
+
+    public List<ShipmentStatusBatchItemResult> updateShipmentStatusesFallback(List<ShipmentStatusBatchEntry> entries, Exception e) {
+        return entries.stream()
+                .map(entry -> batchResult(entry, ShipmentStatusBatchOutcome.REJECTED, null,
+                        "Shipping service is currently unavailable. Please try again later."))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @CircuitBreaker(name = "shippingService", fallbackMethod = "cancelShipmentFallback")
     @RateLimiter(name = "shippingService")
     @Retry(name = "shippingService")
     public ShipmentResponse cancelShipment(Long shipmentId) {
         try {
-            Shipment shipment = shipmentRepository.findById(shipmentId)
-                    .orElseThrow(() -> new RuntimeException("Shipment not found with ID: " + shipmentId));
-            
-            // Only allow cancellation if not already shipped or delivered
-            if (shipment.getStatus() == ShipmentStatus.SHIPPED ||
-                shipment.getStatus() == ShipmentStatus.IN_TRANSIT ||
-                shipment.getStatus() == ShipmentStatus.DELIVERED) {
-                return mapToShipmentResponse(shipment, "Cannot cancel shipment that has already been " + shipment.getStatus());
-            }
-            
-            shipment.setStatus(ShipmentStatus.CANCELLED);
-            shipment.setUpdatedAt(LocalDateTime.now());
-            
-            shipment = shipmentRepository.save(shipment);
-            
-            // Notify other services about the cancellation
-            kafkaTemplate.send("shipping-events", "Shipment cancelled: " + shipment.getId());
-            
-            return mapToShipmentResponse(shipment, "Shipment cancelled successfully");
+            return transactionTemplate.execute(status -> {
+                Shipment shipment = shipmentRepository.findByIdForUpdate(shipmentId)
+                        .orElseThrow(() -> new RuntimeException("Shipment not found with ID: " + shipmentId));
+
+                // Only allow cancellation if not already shipped or delivered
+                if (shipment.getStatus() == ShipmentStatus.SHIPPED ||
+                    shipment.getStatus() == ShipmentStatus.IN_TRANSIT ||
+                    shipment.getStatus() == ShipmentStatus.DELIVERED) {
+                    return mapToShipmentResponse(shipment, "Cannot cancel shipment that has already been " + shipment.getStatus());
+                }
+
+                ShipmentStatus previousStatus = shipment.getStatus();
+                shipment.setStatus(ShipmentStatus.CANCELLED);
+                shipment.setUpdatedAt(LocalDateTime.now());
+
+                Shipment cancelled = saveAndPublish(shipment, previousStatus,
+                        saved -> new ShipmentCancelled(saved.getId(), saved.getOrderId(), Instant.now()));
+                return mapToShipmentResponse(cancelled, "Shipment cancelled successfully");
+            });
         } catch (Exception e) {
             return new ShipmentResponse(shipmentId, null, null, null, ShipmentStatus.CANCELLED, 
                     null, null, null, null, null, null, 
@@ -202,9 +422,79 @@ public class ShippingServiceImpl implements ShippingService {
         return response;
     }
     
+    // Notify other services through the outbox and log the transition, committed in the same transaction as the shipment row
+    private Shipment saveAndPublish(Shipment shipment, ShipmentStatus previousStatus, Function<Shipment, DomainEvent> event) {
+        return transactionTemplate.execute(status -> {
+            Shipment saved = shipmentRepository.save(shipment);
+            shipmentEventLog.append(saved, previousStatus, saved.getUpdatedAt());
+            outboxService.enqueue("shipping-events", String.valueOf(saved.getId()), event.apply(saved));
+            return saved;
+        });
+    }
+    
+    private Shipment newShipment(ShipmentRequest shipmentRequest, LocalDateTime now) {
+        Shipment shipment = new Shipment();
+        shipment.setOrderId(shipmentRequest.getOrderId());
+        shipment.setTrackingNumber(generateTrackingNumber());
+        shipment.setCarrierName(shipmentRequest.getCarrierName());
+        shipment.setStatus(ShipmentStatus.PENDING);
+        shipment.setShippingAddress(shipmentRequest.getShippingAddress());
+        shipment.setCreatedAt(now);
+        shipment.setUpdatedAt(now);
+        shipment.setNotes(shipmentRequest.getNotes());
+        return shipment;
+    }
+
+    private List<Shipment> findShipments(Collection<Long> ids, Collection<String> trackingNumbers) {
+        if (ids.isEmpty()) {
+            return trackingNumbers.isEmpty() ? List.of() : shipmentRepository.findByTrackingNumberInOrderByIdAsc(trackingNumbers);
+        }
+        return trackingNumbers.isEmpty()
+                ? shipmentRepository.findByIdInOrderByIdAsc(ids)
+                : shipmentRepository.findByIdInOrTrackingNumberInOrderByIdAsc(ids, trackingNumbers);
+    }
+
+    private static void applyStatus(Shipment shipment, ShipmentStatus status, LocalDateTime at, String notes) {
+        shipment.setStatus(status);
+        shipment.setUpdatedAt(at);
+        if (notes != null) {
+            shipment.setNotes(notes);
+        }
+        if (status == ShipmentStatus.SHIPPED) {
+            shipment.setShippedAt(at);
+        } else if (status == ShipmentStatus.DELIVERED) {
+            shipment.setDeliveredAt(at);
+        }
+    }
+
+    private static Instant timestampOf(ShipmentStatusBatchEntry entry, Instant now) {
+        return entry.getTimestamp() == null ? now : entry.getTimestamp();
+    }
+
+    private ShipmentStatusBatchItemResult batchResult(ShipmentStatusBatchEntry entry, ShipmentStatusBatchOutcome outcome,
+                                                      Shipment shipment, String message) {
+        ShipmentResponse response;
+        if (shipment != null) {
+            response = mapToShipmentResponse(shipment, message);
+        } else {
+            response = new ShipmentResponse();
+            response.setId(entry.getShipmentId());
+            response.setTrackingNumber(entry.getTrackingNumber());
+            response.setStatus(entry.getStatus());
+            response.setMessage(message);
+        }
+        return new ShipmentStatusBatchItemResult(entry.getShipmentId(), entry.getTrackingNumber(), outcome, response);
+    }
+
+    private static String nameOf(ShipmentStatus status) {
+        return status == null ? null : status.name();
+    }
+    
+    // Indexed before it is saved, so this replica never answers 404 for a number it handed out
     private String generateTrackingNumber() {
-        // Simple tracking number generator - in a real system this would be more sophisticated
-        return "TRK-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String trackingNumber = trackingNumberGenerator.next();
+        trackingNumberIndex.add(trackingNumber);
+        return trackingNumber;
     }
     
     private ShipmentResponse mapToShipmentResponse(Shipment shipment, String message) {
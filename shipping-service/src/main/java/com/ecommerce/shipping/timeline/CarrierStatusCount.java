@@ -0,0 +1,33 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "carrier_status_counts")
+public class CarrierStatusCount {
+
+    @Id
+    private String id; // carrierName:status
+
+    private String carrierName;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+
+    private Long shipments; // shipments of this carrier currently in this status
+
+    public static String idOf(String carrierName, ShipmentStatus status) {
+        return carrierName + ":" + status;
+    }
+}
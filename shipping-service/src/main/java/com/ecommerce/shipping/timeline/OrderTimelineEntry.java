@@ -0,0 +1,44 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One step of an order's shipping history, without the bulky shipment columns.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_timeline_entries", indexes = @Index(name = "idx_order_timeline_entries_order_id", columnList = "orderId, occurredAt"))
+public class OrderTimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_timeline_entry_seq")
+    @SequenceGenerator(name = "order_timeline_entry_seq", sequenceName = "order_timeline_entry_seq", allocationSize = 50)
+    private Long id;
+
+    private Long orderId;
+    private Long shipmentId;
+    private Long eventId;
+    private String trackingNumber;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+
+    private LocalDateTime occurredAt;
+    private String notes;
+}
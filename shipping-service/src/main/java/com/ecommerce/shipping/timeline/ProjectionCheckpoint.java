@@ -0,0 +1,26 @@
+package com.ecommerce.shipping.timeline;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "projection_checkpoints")
+public class ProjectionCheckpoint {
+
+    @Id
+    private String id; // projection name
+
+    private Long lastPosition; // log position of the last event applied
+    private Long lastAssignedPosition; // highest log position handed out so far
+    private Long appliedCount;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One status transition of a shipment. The transition columns are written once at insert;
+ * the only later write is the ShipmentProjector setting logPosition, once, when it first
+ * sees the row. The read projections are derived from these rows and can be rebuilt by
+ * replaying the table in logPosition order.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "shipment_events", indexes = {
+        @Index(name = "idx_shipment_events_log_position", columnList = "logPosition, recordedAt, id"),
+        @Index(name = "idx_shipment_events_shipment_id", columnList = "shipmentId")
+})
+public class ShipmentEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_event_seq")
+    @SequenceGenerator(name = "shipment_event_seq", sequenceName = "shipment_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long shipmentId;
+
+    private Long orderId;
+    private String trackingNumber;
+    private String carrierName;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus previousStatus; // null for the creation event
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ShipmentStatus status;
+
+    private LocalDateTime occurredAt; // when the transition happened (carrier time for carrier updates)
+    private LocalDateTime recordedAt; // when the row was written
+    private String notes;
+    private Long logPosition; // commit-ordered position assigned by the projector; null until it has seen the row
+}
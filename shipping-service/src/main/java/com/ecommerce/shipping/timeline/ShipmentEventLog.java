@@ -0,0 +1,40 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.Shipment;
+import com.ecommerce.shipping.model.ShipmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ShipmentEventLog {
+
+    private final ShipmentEventRepository shipmentEventRepository;
+
+    @Autowired
+    public ShipmentEventLog(ShipmentEventRepository shipmentEventRepository) {
+        this.shipmentEventRepository = shipmentEventRepository;
+    }
+
+    // Joins the caller's transaction so a transition is logged if and only if the shipment row changes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Shipment shipment, ShipmentStatus previousStatus, LocalDateTime occurredAt) {
+        shipmentEventRepository.save(toEvent(shipment, previousStatus, occurredAt, LocalDateTime.now()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<ShipmentEvent> events) {
+        shipmentEventRepository.saveAll(events);
+    }
+
+    public static ShipmentEvent toEvent(Shipment shipment, ShipmentStatus previousStatus,
+                                        LocalDateTime occurredAt, LocalDateTime recordedAt) {
+        return new ShipmentEvent(null, shipment.getId(), shipment.getOrderId(), shipment.getTrackingNumber(),
+                shipment.getCarrierName(), previousStatus, shipment.getStatus(), occurredAt, recordedAt,
+                shipment.getNotes(), null);
+    }
+}
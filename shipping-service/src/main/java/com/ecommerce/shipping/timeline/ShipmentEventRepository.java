@@ -0,0 +1,17 @@
+package com.ecommerce.shipping.timeline;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShipmentEventRepository extends JpaRepository<ShipmentEvent, Long> {
+
+    // Events that already have a log position, replayed after a rebuild
+    List<ShipmentEvent> findByLogPositionGreaterThanOrderByLogPositionAsc(Long logPosition, Limit limit);
+
+    // Committed events without a position yet; changes to one shipment are written one after the other
+    List<ShipmentEvent> findByLogPositionIsNullOrderByRecordedAtAscIdAsc(Limit limit);
+}
@@ -0,0 +1,234 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Folds the shipment event log into the read projections. Each batch is applied in
+ * the same transaction that advances the checkpoint, so every event is applied
+ * exactly once; the checkpoint row is locked meanwhile, so replicas take turns.
+ *
+ * Neither ids nor timestamps follow commit order, so the projector gives each event a
+ * log position when it first sees the committed row. A transaction that commits late
+ * is placed after what has already been applied instead of being skipped.
+ */
+@Component
+public class ShipmentProjector {
+
+    static final String CHECKPOINT_ID = "shipment-projections";
+    private static final String UNKNOWN_CARRIER = "unknown";
+
+    private final ShipmentEventRepository shipmentEventRepository;
+    private final ShipmentTrackingViewRepository trackingViewRepository;
+    private final OrderTimelineEntryRepository timelineEntryRepository;
+    private final CarrierStatusCountRepository carrierStatusCountRepository;
+    private final TimeInStateBucketRepository timeInStateBucketRepository;
+    private final ProjectionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private volatile boolean checkpointCreated;
+
+    @Autowired
+    public ShipmentProjector(ShipmentEventRepository shipmentEventRepository,
+                             ShipmentTrackingViewRepository trackingViewRepository,
+                             OrderTimelineEntryRepository timelineEntryRepository,
+                             CarrierStatusCountRepository carrierStatusCountRepository,
+                             TimeInStateBucketRepository timeInStateBucketRepository,
+                             ProjectionCheckpointRepository checkpointRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${shipping.projection.enabled:true}") boolean enabled,
+                             @Value("${shipping.projection.batch-size:500}") int batchSize,
+                             @Value("${shipping.projection.max-batches-per-poll:10}") int maxBatchesPerPoll) {
+        this.shipmentEventRepository = shipmentEventRepository;
+        this.trackingViewRepository = trackingViewRepository;
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.carrierStatusCountRepository = carrierStatusCountRepository;
+        this.timeInStateBucketRepository = timeInStateBucketRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+    }
+
+    @Scheduled(fixedDelayString = "${shipping.projection.poll-interval-ms:500}")
+    public void project() {
+        if (!enabled) {
+            return;
+        }
+        createCheckpoint();
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (projectBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Clears every projection and rewinds the checkpoint; the scheduled polls then
+     * replay the whole log in position order. Reads see partially rebuilt projections
+     * until they catch up.
+     */
+    public void rebuild() {
+        createCheckpoint();
+        transactionTemplate.executeWithoutResult(status -> {
+            ProjectionCheckpoint checkpoint = checkpointRepository.lockById(CHECKPOINT_ID).orElseThrow();
+            reset(checkpoint);
+            checkpointRepository.save(checkpoint);
+        });
+    }
+
+    private int projectBatch() {
+        Integer applied = transactionTemplate.execute(status -> {
+            ProjectionCheckpoint checkpoint = checkpointRepository.lockById(CHECKPOINT_ID).orElseThrow();
+            if (checkpoint.getLastPosition() == null) {
+                reset(checkpoint); // written before events had log positions, so the projections start over
+            }
+            List<ShipmentEvent> events = new ArrayList<>(shipmentEventRepository
+                    .findByLogPositionGreaterThanOrderByLogPositionAsc(checkpoint.getLastPosition(), Limit.of(batchSize)));
+            if (events.size() < batchSize) {
+                // Rows of transactions still in flight are not visible yet and get a position once they commit
+                long position = checkpoint.getLastAssignedPosition();
+                for (ShipmentEvent event : shipmentEventRepository.findByLogPositionIsNullOrderByRecordedAtAscIdAsc(
+                        Limit.of(batchSize - events.size()))) {
+                    event.setLogPosition(++position);
+                    events.add(event);
+                }
+                checkpoint.setLastAssignedPosition(position);
+            }
+            if (events.isEmpty()) {
+                return 0;
+            }
+            apply(events);
+
+            checkpoint.setLastPosition(events.get(events.size() - 1).getLogPosition());
+            checkpoint.setAppliedCount(checkpoint.getAppliedCount() + events.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            return events.size();
+        });
+        return applied == null ? 0 : applied;
+    }
+
+    private void reset(ProjectionCheckpoint checkpoint) {
+        trackingViewRepository.deleteAllInBatch();
+        timelineEntryRepository.deleteAllInBatch();
+        carrierStatusCountRepository.deleteAllInBatch();
+        timeInStateBucketRepository.deleteAllInBatch();
+        checkpoint.setLastPosition(0L);
+        if (checkpoint.getLastAssignedPosition() == null) {
+            checkpoint.setLastAssignedPosition(0L);
+        }
+        checkpoint.setAppliedCount(0L);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void apply(List<ShipmentEvent> events) {
+        Set<Long> shipmentIds = events.stream().map(ShipmentEvent::getShipmentId).collect(Collectors.toSet());
+        Map<Long, ShipmentTrackingView> views = new HashMap<>();
+        for (ShipmentTrackingView view : trackingViewRepository.findAllById(shipmentIds)) {
+            views.put(view.getShipmentId(), view);
+        }
+        // Both aggregates are small (carriers x statuses, statuses x buckets), so they are loaded whole
+        Map<String, CarrierStatusCount> counts = new HashMap<>();
+        for (CarrierStatusCount count : carrierStatusCountRepository.findAll()) {
+            counts.put(count.getId(), count);
+        }
+        Map<String, TimeInStateBucket> buckets = new HashMap<>();
+        for (TimeInStateBucket bucket : timeInStateBucketRepository.findAll()) {
+            buckets.put(bucket.getId(), bucket);
+        }
+        List<OrderTimelineEntry> timeline = new ArrayList<>();
+
+        for (ShipmentEvent event : events) {
+            // Shipments created before the log existed enter the projections at their next transition
+            ShipmentTrackingView view = views.computeIfAbsent(event.getShipmentId(), id -> new ShipmentTrackingView(
+                    id, null, null, null, null, null,
+                    event.getPreviousStatus() == null ? event.getOccurredAt() : null, null, null, null));
+
+            if (view.getStatus() != null) {
+                adjustCount(counts, view.getCarrierName(), view.getStatus(), -1);
+                if (view.getStatusSince() != null && event.getOccurredAt() != null) {
+                    long seconds = Math.max(0, Duration.between(view.getStatusSince(), event.getOccurredAt()).getSeconds());
+                    TimeInStateBucket bucket = buckets.computeIfAbsent(
+                            TimeInStateBucket.idOf(view.getStatus(), TimeInStateBucket.bucketIndexOf(seconds)),
+                            id -> TimeInStateBucket.empty(view.getStatus(), TimeInStateBucket.bucketIndexOf(seconds)));
+                    bucket.setShipments(bucket.getShipments() + 1);
+                    bucket.setTotalSeconds(bucket.getTotalSeconds() + seconds);
+                }
+            }
+
+            if (event.getOrderId() != null) {
+                view.setOrderId(event.getOrderId());
+            }
+            if (event.getTrackingNumber() != null) {
+                view.setTrackingNumber(event.getTrackingNumber());
+            }
+            if (event.getCarrierName() != null) {
+                view.setCarrierName(event.getCarrierName());
+            }
+            if (event.getNotes() != null) {
+                view.setNotes(event.getNotes());
+            }
+            view.setStatus(event.getStatus());
+            view.setStatusSince(event.getOccurredAt());
+            if (event.getStatus() == ShipmentStatus.SHIPPED) {
+                view.setShippedAt(event.getOccurredAt());
+            } else if (event.getStatus() == ShipmentStatus.DELIVERED) {
+                view.setDeliveredAt(event.getOccurredAt());
+            }
+            adjustCount(counts, view.getCarrierName(), view.getStatus(), 1);
+
+            if (view.getOrderId() != null) {
+                timeline.add(new OrderTimelineEntry(null, view.getOrderId(), event.getShipmentId(), event.getId(),
+                        view.getTrackingNumber(), event.getStatus(), event.getOccurredAt(), event.getNotes()));
+            }
+        }
+
+        trackingViewRepository.saveAll(views.values());
+        carrierStatusCountRepository.saveAll(counts.values());
+        timeInStateBucketRepository.saveAll(buckets.values());
+        timelineEntryRepository.saveAll(timeline);
+    }
+
+    private static void adjustCount(Map<String, CarrierStatusCount> counts, String carrierName,
+                                    ShipmentStatus status, long delta) {
+        String carrier = carrierName == null ? UNKNOWN_CARRIER : carrierName;
+        CarrierStatusCount count = counts.computeIfAbsent(CarrierStatusCount.idOf(carrier, status),
+                id -> new CarrierStatusCount(id, carrier, status, 0L));
+        count.setShipments(count.getShipments() + delta);
+    }
+
+    private void createCheckpoint() {
+        if (checkpointCreated) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!checkpointRepository.existsById(CHECKPOINT_ID)) {
+                    checkpointRepository.save(new ProjectionCheckpoint(CHECKPOINT_ID, 0L, 0L, 0L, LocalDateTime.now()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another replica inserted it first
+        }
+        checkpointCreated = true;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current tracking state of one shipment, projected from the event log.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "shipment_tracking_views", indexes = @Index(name = "idx_shipment_tracking_views_order_id", columnList = "orderId"))
+public class ShipmentTrackingView {
+
+    @Id
+    private Long shipmentId;
+
+    private Long orderId;
+    private String trackingNumber;
+    private String carrierName;
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+
+    private LocalDateTime statusSince; // when the current status was entered
+    private LocalDateTime createdAt;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+    private String notes;
+}
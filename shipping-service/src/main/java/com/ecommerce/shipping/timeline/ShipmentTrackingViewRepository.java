@@ -0,0 +1,11 @@
+package com.ecommerce.shipping.timeline;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShipmentTrackingViewRepository extends JpaRepository<ShipmentTrackingView, Long> {
+    List<ShipmentTrackingView> findByOrderId(Long orderId);
+}
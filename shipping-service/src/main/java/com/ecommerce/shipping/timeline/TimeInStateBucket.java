@@ -0,0 +1,61 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * One histogram bucket of how long shipments stayed in a status before leaving it.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "time_in_state_buckets")
+public class TimeInStateBucket {
+
+    // Upper bounds (inclusive) of the buckets; one more bucket collects everything longer
+    public static final long[] UPPER_BOUNDS_SECONDS = {
+            Duration.ofHours(1).toSeconds(), Duration.ofHours(6).toSeconds(), Duration.ofHours(12).toSeconds(),
+            Duration.ofDays(1).toSeconds(), Duration.ofDays(2).toSeconds(), Duration.ofDays(3).toSeconds(),
+            Duration.ofDays(5).toSeconds(), Duration.ofDays(7).toSeconds(), Duration.ofDays(14).toSeconds(),
+            Duration.ofDays(30).toSeconds()
+    };
+
+    @Id
+    private String id; // status:bucketIndex
+
+    @Enumerated(EnumType.STRING)
+    private ShipmentStatus status;
+
+    private Integer bucketIndex;
+    private Long upperBoundSeconds; // null for the overflow bucket
+    private Long shipments;
+    private Long totalSeconds;
+
+    public static int bucketIndexOf(long seconds) {
+        for (int i = 0; i < UPPER_BOUNDS_SECONDS.length; i++) {
+            if (seconds <= UPPER_BOUNDS_SECONDS[i]) {
+                return i;
+            }
+        }
+        return UPPER_BOUNDS_SECONDS.length;
+    }
+
+    public static String idOf(ShipmentStatus status, int bucketIndex) {
+        return status + ":" + bucketIndex;
+    }
+
+    public static TimeInStateBucket empty(ShipmentStatus status, int bucketIndex) {
+        Long upperBound = bucketIndex < UPPER_BOUNDS_SECONDS.length ? UPPER_BOUNDS_SECONDS[bucketIndex] : null;
+        return new TimeInStateBucket(idOf(status, bucketIndex), status, bucketIndex, upperBound, 0L, 0L);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.shipping.timeline;
+
+import com.ecommerce.shipping.model.ShipmentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TimeInStateBucketRepository extends JpaRepository<TimeInStateBucket, String> {
+    List<TimeInStateBucket> findAllByOrderByStatusAscBucketIndexAsc();
+    List<TimeInStateBucket> findByStatusOrderByBucketIndexAsc(ShipmentStatus status);
+}
@@ -0,0 +1,193 @@
+package com.ecommerce.shipping.tracking;
+
+import com.ecommerce.events.DomainEvent;
+import com.ecommerce.events.EventCodec;
+import com.ecommerce.events.ShipmentCreated;
+import com.ecommerce.shipping.id.TrackingNodeAllocator;
+import com.ecommerce.shipping.id.TrackingNumberGenerator;
+import com.ecommerce.shipping.repository.ShipmentRepository;
+import com.ecommerce.shipping.repository.ShipmentTrackingNumber;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Per-replica Bloom filter of every issued tracking number, so lookups for numbers that
+ * were never issued are answered without touching the database. Numbers issued here are
+ * added as they are generated; numbers from other replicas arrive through shipping-events,
+ * which every replica reads in full from directly assigned partitions.
+ *
+ * Once the partitions are assigned the consumer is moved back to shortly before that
+ * moment and the shipments table is loaded. Anything committed after the load read its
+ * rows is published after that point, so no number falls between the two. Until the load
+ * completes every well-formed number is let through.
+ */
+@Component
+public class TrackingNumberIndex implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(TrackingNumberIndex.class);
+
+    // Numbers issued before the Snowflake generator: "TRK-" and 8 upper-case hex digits
+    private static final Pattern LEGACY_FORMAT = Pattern.compile("TRK-[0-9A-F]{8}");
+    private static final long MAX_WARM_RETRY_DELAY_MS = 30_000;
+
+    private final ShipmentRepository shipmentRepository;
+    private final AsyncTaskExecutor taskExecutor;
+    private final BloomFilter filter;
+    private final int nodeId;
+    private final int warmPageSize;
+    private final long replayMarginMs;
+    private final long recentWindowMs;
+    private final RateLimiter recentLookups;
+    private final Counter rejections;
+    private final AtomicBoolean warmStarted = new AtomicBoolean();
+    private volatile boolean warmed;
+
+    @Autowired
+    public TrackingNumberIndex(ShipmentRepository shipmentRepository, TrackingNodeAllocator nodeAllocator,
+                               @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${shipping.tracking-index.expected-shipments:5000000}") long expectedShipments,
+                               @Value("${shipping.tracking-index.false-positive-rate:0.01}") double falsePositiveRate,
+                               @Value("${shipping.tracking-index.warm-page-size:10000}") int warmPageSize,
+                               @Value("${shipping.tracking-index.replay-margin-ms:60000}") long replayMarginMs,
+                               @Value("${shipping.tracking-index.recent-window-ms:5000}") long recentWindowMs,
+                               @Value("${shipping.tracking-index.recent-lookups-per-second:20}") int recentLookupsPerSecond) {
+        this.shipmentRepository = shipmentRepository;
+        this.taskExecutor = taskExecutor;
+        this.filter = new BloomFilter(expectedShipments, falsePositiveRate);
+        this.nodeId = nodeAllocator.nodeId();
+        this.warmPageSize = warmPageSize;
+        this.replayMarginMs = replayMarginMs;
+        this.recentWindowMs = recentWindowMs;
+        this.recentLookups = RateLimiter.of("tracking-index-recent", RateLimiterConfig.custom()
+                .limitForPeriod(recentLookupsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        this.rejections = Counter.builder("shipping.tracking.index.rejections")
+                .description("Tracking number lookups answered as unknown without a database query")
+                .register(meterRegistry);
+        Gauge.builder("shipping.tracking.index.warmed", this, index -> index.warmed ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean mightExist(String trackingNumber) {
+        long id = TrackingNumberGenerator.decode(trackingNumber);
+        boolean exists;
+        if (id < 0 && !LEGACY_FORMAT.matcher(trackingNumber).matches()) {
+            exists = false;
+        } else if (!warmed || filter.mightContain(trackingNumber)) {
+            exists = true;
+        } else {
+            exists = id >= 0 && isRecentFromAnotherReplica(id) && recentLookups.acquirePermission();
+        }
+        if (!exists) {
+            rejections.increment();
+        }
+        return exists;
+    }
+
+    public void add(String trackingNumber) {
+        if (trackingNumber != null) {
+            filter.put(trackingNumber);
+        }
+    }
+
+    /*
+     * Numbers from this replica are added before they are handed out, so a miss is final. Another
+     * replica's number may still be on its way through the outbox: those are let through for a few
+     * seconds after their timestamp, within a small per-second budget so forged ones cannot flood
+     * the database.
+     */
+    private boolean isRecentFromAnotherReplica(long id) {
+        long age = System.currentTimeMillis() - TrackingNumberGenerator.epochMillisOf(id);
+        return TrackingNumberGenerator.nodeIdOf(id) != nodeId && age >= 0 && age <= recentWindowMs;
+    }
+
+    @KafkaListener(id = "tracking-index", containerFactory = "trackingIndexListenerContainerFactory",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(topic = "shipping-events",
+                    partitions = "#{@trackingIndexPartitions.of('shipping-events')}"),
+            properties = "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer")
+    public void onShippingEvent(byte[] payload) {
+        DomainEvent event;
+        try {
+            event = EventCodec.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping undecodable shipping event: {}", e.getMessage());
+            return;
+        }
+        if (event instanceof ShipmentCreated created) {
+            add(created.trackingNumber());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        if (!warmStarted.compareAndSet(false, true)) {
+            return;
+        }
+        // The margin covers clock skew between this host and the relays that stamp the records
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - replayMarginMs);
+        taskExecutor.execute(this::warm);
+    }
+
+    // Runs on the task executor so a large table does not hold up the consumer; retries until the database answers
+    private void warm() {
+        long delayMs = 1000;
+        while (!warmed) {
+            try {
+                long started = System.nanoTime();
+                long loaded = load();
+                warmed = true;
+                log.info("Tracking number index loaded {} shipments in {} ms ({} KiB)", loaded,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), filter.sizeInBytes() / 1024);
+            } catch (RuntimeException e) {
+                log.warn("Loading the tracking number index failed, retrying in {} ms: {}", delayMs, e.getMessage());
+                try {
+                    Thread.sleep(delayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delayMs = Math.min(delayMs * 2, MAX_WARM_RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    private long load() {
+        long afterId = 0;
+        long loaded = 0;
+        List<ShipmentTrackingNumber> page;
+        do {
+            page = shipmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(warmPageSize));
+            for (ShipmentTrackingNumber shipment : page) {
+                add(shipment.getTrackingNumber());
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+            loaded += page.size();
+        } while (page.size() == warmPageSize);
+        return loaded;
+    }
+}